@@ -0,0 +1,109 @@
+package com.github.hanielcota.benchmarks;
+
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.MessageKey;
+import com.github.hanielcota.utils.MessageService;
+import com.github.hanielcota.utils.MessageUtils;
+import com.github.hanielcota.utils.PlaceholderContext;
+import com.github.hanielcota.utils.PlaceholderKey;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@link MessageService#send} and {@link MessageUtils#getMessage} on
+ * a configuration built in memory. Each MiniMessage variant is paired with a
+ * bare {@code deserialize} of the same template as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageRenderBenchmark {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static final String MINI_TEMPLATE = "<yellow>Teleporting <player> to <world>...</yellow>";
+    private static final String MINI_PLAIN = "<green>You have been successfully teleported!</green>";
+
+    private static final MessageKey TELEPORTING = MessageKey.of("teleporting");
+    private static final PlaceholderKey WORLD = PlaceholderKey.of("world");
+    private static final PlaceholderKey COORDS = PlaceholderKey.of("coords");
+
+    private final StandIns.Sender sender = new StandIns.Sender();
+
+    private MessageService messageService;
+    private MessageUtils messageUtils;
+    private Map<String, String> placeholders;
+    private TagResolver[] resolvers;
+
+    @Setup
+    public void setup() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("messages.teleporting", "§eTeleporting to world '{world}'... §7({coords})");
+        yaml.set("messages.success", MINI_PLAIN);
+        yaml.set("messages.teleporting-player", MINI_TEMPLATE);
+
+        ConfigUtils config = ConfigUtils.detached(yaml, Logger.getLogger("WorldLink"));
+        messageService = new MessageService(config);
+        messageUtils = new MessageUtils(config);
+
+        placeholders = Map.of("world", "world_nether", "coords", "0.5, 64.0, 0.5");
+        resolvers = new TagResolver[]{
+                Placeholder.unparsed("player", "Jane"),
+                Placeholder.unparsed("world", "world_nether")
+        };
+    }
+
+    @Benchmark
+    public Object sendMap() {
+        messageService.send(sender, TELEPORTING, placeholders);
+        return sender.last;
+    }
+
+    @Benchmark
+    public Object sendContext() {
+        try (PlaceholderContext context = PlaceholderContext.acquire()) {
+            context.set(WORLD, "world_nether").set(COORDS, "0.5, 64.0, 0.5");
+            messageService.send(sender, TELEPORTING, context);
+        }
+        return sender.last;
+    }
+
+    @Benchmark
+    public Component getMessagePlain() {
+        return messageUtils.getMessage("messages.success");
+    }
+
+    @Benchmark
+    public Component getMessagePlainBaseline() {
+        return MINI_MESSAGE.deserialize(MINI_PLAIN);
+    }
+
+    @Benchmark
+    public Component getMessageStringPairs() {
+        return messageUtils.getMessage("messages.teleporting-player", "player", "Jane", "world", "world_nether");
+    }
+
+    @Benchmark
+    public Component getMessageTagResolvers() {
+        return messageUtils.getMessage("messages.teleporting-player", resolvers);
+    }
+
+    @Benchmark
+    public Component getMessageTagResolversBaseline() {
+        return MINI_MESSAGE.deserialize(MINI_TEMPLATE, resolvers);
+    }
+}
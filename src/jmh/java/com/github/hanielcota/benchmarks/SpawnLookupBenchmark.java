@@ -0,0 +1,74 @@
+package com.github.hanielcota.benchmarks;
+
+import com.github.hanielcota.models.SpawnPoint;
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.SpawnConfigUtils;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@link SpawnConfigUtils#getSpawnLocation(World)} on a configuration
+ * built in memory, next to parsing the legacy string form on every call, which
+ * is what the lookup did before spawns were cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnLookupBenchmark {
+
+    private static final String RAW_SPAWN = "128.500000,64.000000,-256.250000,90.00,12.50";
+
+    private World world;
+    private SpawnConfigUtils spawns;
+
+    @Setup
+    public void setup() {
+        world = StandIns.world("world_nether");
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.createSection("spawns." + world.getUID(), Map.of(
+                "version", 2,
+                "world", world.getName(),
+                "x", 128.5,
+                "y", 64.0,
+                "z", -256.25,
+                "yaw", 90.0,
+                "pitch", 12.5
+        ));
+
+        Logger logger = Logger.getLogger("WorldLink");
+        spawns = new SpawnConfigUtils(logger, ConfigUtils.detached(yaml, logger), () -> List.of(world));
+    }
+
+    @Benchmark
+    public Location getSpawnLocation() {
+        return spawns.getSpawnLocation(world);
+    }
+
+    @Benchmark
+    public Location parsePerCall() {
+        return SpawnPoint.parse(RAW_SPAWN).toLocation(world);
+    }
+
+    /**
+     * Cost of the {@link StandIns#world} proxy call made by each lookup.
+     */
+    @Benchmark
+    public UUID worldUidBaseline() {
+        return world.getUID();
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.hanielcota.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lightweight stand-ins for Bukkit types so benchmarks run without a server.
+ * <p>
+ * Only the methods touched by the benchmarked code paths do anything; every
+ * other call returns the type's default value.
+ */
+final class StandIns {
+
+    private StandIns() {
+    }
+
+    /**
+     * Creates a world stand-in answering {@code getName()} and {@code getUID()}.
+     * <p>
+     * {@link World} is too large to implement by hand, so this one is a
+     * {@link Proxy}; benchmarks that call it measure its dispatch cost in a
+     * separate baseline.
+     */
+    static World world(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getUID" -> uid;
+                    case "hashCode" -> uid.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StandInWorld{" + name + "}";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == int.class) return 0;
+        if (type == short.class) return (short) 0;
+        return (byte) 0;
+    }
+
+    /**
+     * Console-like sender that records the last message it was sent, so the
+     * rendered text cannot be optimized away. Implemented directly, without
+     * reflection, so message benchmarks only measure the plugin's code.
+     */
+    static final class Sender implements CommandSender {
+        Object last;
+
+        @Override
+        public void sendMessage(String message) {
+            last = message;
+        }
+
+        @Override
+        public void sendMessage(String... messages) {
+            last = messages;
+        }
+
+        @Override
+        public void sendMessage(UUID sender, String message) {
+            last = message;
+        }
+
+        @Override
+        public void sendMessage(UUID sender, String... messages) {
+            last = messages;
+        }
+
+        @Override
+        public Server getServer() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "BenchSender";
+        }
+
+        @Override
+        public Spigot spigot() {
+            return null;
+        }
+
+        @Override
+        public Component name() {
+            return Component.text(getName());
+        }
+
+        @Override
+        public boolean isPermissionSet(String name) {
+            return true;
+        }
+
+        @Override
+        public boolean isPermissionSet(Permission perm) {
+            return true;
+        }
+
+        @Override
+        public boolean hasPermission(String name) {
+            return true;
+        }
+
+        @Override
+        public boolean hasPermission(Permission perm) {
+            return true;
+        }
+
+        @Override
+        public PermissionAttachment addAttachment(Plugin plugin, String name, boolean value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PermissionAttachment addAttachment(Plugin plugin) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PermissionAttachment addAttachment(Plugin plugin, String name, boolean value, int ticks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PermissionAttachment addAttachment(Plugin plugin, int ticks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeAttachment(PermissionAttachment attachment) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void recalculatePermissions() {
+        }
+
+        @Override
+        public Set<PermissionAttachmentInfo> getEffectivePermissions() {
+            return Set.of();
+        }
+
+        @Override
+        public boolean isOp() {
+            return true;
+        }
+
+        @Override
+        public void setOp(boolean value) {
+        }
+    }
+}
@@ -1,15 +1,52 @@
 package com.github.hanielcota;
 
+import co.aikar.commands.InvalidCommandArgument;
 import co.aikar.commands.PaperCommandManager;
+import com.github.hanielcota.api.WorldLinkAPI;
+import com.github.hanielcota.api.WorldLinkAPIService;
 import com.github.hanielcota.commands.SetWorldSpawnCommand;
+import com.github.hanielcota.commands.WorldLinkCommand;
 import com.github.hanielcota.commands.WorldTPCommand;
+import com.github.hanielcota.enums.SpawnStrategy;
+import com.github.hanielcota.listeners.LocaleListener;
+import com.github.hanielcota.listeners.ProxyListener;
+import com.github.hanielcota.listeners.RateLimitListener;
+import com.github.hanielcota.listeners.ReturnPointListener;
+import com.github.hanielcota.listeners.SpawnDensityListener;
+import com.github.hanielcota.listeners.SpawnSafetyListener;
+import com.github.hanielcota.listeners.WarmupListener;
+import com.github.hanielcota.listeners.WorldListener;
+import com.github.hanielcota.metrics.PrometheusTextExporter;
+import com.github.hanielcota.metrics.TeleportMetrics;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.proxy.PluginMessageTransport;
+import com.github.hanielcota.proxy.ProxyRouter;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.services.ChunkTicketRegistry;
+import com.github.hanielcota.services.ChunkWarmupService;
+import com.github.hanielcota.services.RandomTeleportService;
+import com.github.hanielcota.services.SpawnSafetyService;
+import com.github.hanielcota.services.TeleportAdmissionController;
+import com.github.hanielcota.services.TeleportRateLimiter;
 import com.github.hanielcota.services.TeleportService;
+import com.github.hanielcota.services.TeleportWarmupService;
+import com.github.hanielcota.services.WorldLifecycleService;
+import com.github.hanielcota.services.WorldRegistry;
+import com.github.hanielcota.utils.ConfigSnapshot;
 import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.ConfigWatcher;
 import com.github.hanielcota.utils.MessageService;
+import com.github.hanielcota.utils.ReturnPointStore;
 import com.github.hanielcota.utils.SpawnConfigUtils;
+import com.github.hanielcota.utils.TeleportJournal;
 import lombok.Getter;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Plugin main class for WorldLink.
  * <p>
@@ -20,9 +57,25 @@ import org.bukkit.plugin.java.JavaPlugin;
 public final class WorldLink extends JavaPlugin {
 
     private PaperCommandManager commandManager;
+    private TaskScheduler taskScheduler;
+    private ConfigUtils configUtils;
     private TeleportService teleportService;
     private MessageService messageService;
     private SpawnConfigUtils spawnConfigUtils;
+    private ChunkTicketRegistry chunkTickets;
+    private ChunkWarmupService chunkWarmupService;
+    private SpawnSafetyService safetyService;
+    private TeleportAdmissionController admissionController;
+    private TeleportMetrics metrics;
+    private WorldRegistry worldRegistry;
+    private ProxyRouter proxyRouter;
+    private ReturnPointStore returnPointStore;
+    private RandomTeleportService randomTeleportService;
+    private WorldLifecycleService worldLifecycleService;
+    private TeleportJournal journal;
+    private ConfigWatcher configWatcher;
+    private TeleportRateLimiter rateLimiter;
+    private TeleportWarmupService warmupService;
 
     /**
      * Called when the plugin is enabled. Loads configuration, initializes
@@ -31,33 +84,287 @@ public final class WorldLink extends JavaPlugin {
     @Override
     public void onEnable() {
         // Load configuration
-        ConfigUtils configUtils = new ConfigUtils(this, "config.yml");
+        this.configUtils = new ConfigUtils(this, "config.yml");
 
         // Initialize services
+        this.taskScheduler = TaskScheduler.create(this);
+        this.metrics = new TeleportMetrics(getLogger(), configUtils.getBoolean("metrics.enabled"));
         this.messageService = new MessageService(configUtils);
-        this.spawnConfigUtils = new SpawnConfigUtils(configUtils);
-        this.teleportService = new TeleportService(getLogger(), spawnConfigUtils);
+        messageService.loadBundles();
+        this.spawnConfigUtils = new SpawnConfigUtils(getLogger(), configUtils);
+        this.worldRegistry = new WorldRegistry(configUtils);
+        this.proxyRouter = new ProxyRouter(this, taskScheduler, configUtils, new PluginMessageTransport(this), worldRegistry::updateRemoteWorlds,
+                (player, worldName) -> teleportService.teleportToWorld(player, TargetWorld.of(worldName)));
+        this.safetyService = new SpawnSafetyService(this, configUtils, taskScheduler);
+        this.returnPointStore = new ReturnPointStore(this, configUtils);
+        this.randomTeleportService = new RandomTeleportService(this, taskScheduler, configUtils);
+        this.worldLifecycleService = new WorldLifecycleService(this, taskScheduler, configUtils);
+        this.journal = new TeleportJournal(this, configUtils);
+        this.chunkTickets = new ChunkTicketRegistry(this, taskScheduler);
+        this.teleportService = new TeleportService(getLogger(), chunkTickets, taskScheduler, configUtils, spawnConfigUtils, safetyService, proxyRouter, returnPointStore, randomTeleportService, worldLifecycleService, journal);
+        this.chunkWarmupService = new ChunkWarmupService(this, chunkTickets, configUtils, spawnConfigUtils);
+        this.admissionController = new TeleportAdmissionController(taskScheduler, configUtils, teleportService, messageService);
+        this.rateLimiter = new TeleportRateLimiter(configUtils);
+        this.warmupService = new TeleportWarmupService(taskScheduler, configUtils, messageService);
 
         // Initialize command manager
         this.commandManager = new PaperCommandManager(this);
+        registerWorldArgument();
+        registerSpawnStrategyArgument();
 
         // Register commands
-        commandManager.registerCommand(new WorldTPCommand(this, teleportService, messageService));
-        commandManager.registerCommand(new SetWorldSpawnCommand(configUtils, messageService));
+        commandManager.registerCommand(new WorldTPCommand(taskScheduler, admissionController, teleportService, messageService, metrics, rateLimiter, warmupService));
+        commandManager.registerCommand(new WorldLinkCommand(this, messageService, metrics, admissionController, worldLifecycleService, journal));
+        commandManager.registerCommand(new SetWorldSpawnCommand(configUtils, messageService, spawnConfigUtils, chunkWarmupService));
+
+        // Register listeners
+        getServer().getPluginManager().registerEvents(new WorldListener(spawnConfigUtils, chunkWarmupService, safetyService, worldRegistry), this);
+        getServer().getPluginManager().registerEvents(new SpawnSafetyListener(safetyService), this);
+        getServer().getPluginManager().registerEvents(new ProxyListener(proxyRouter), this);
+        getServer().getPluginManager().registerEvents(new ReturnPointListener(returnPointStore), this);
+        getServer().getPluginManager().registerEvents(new RateLimitListener(rateLimiter), this);
+        getServer().getPluginManager().registerEvents(new WarmupListener(warmupService), this);
+        getServer().getPluginManager().registerEvents(new SpawnDensityListener(spawnConfigUtils), this);
+        getServer().getPluginManager().registerEvents(new LocaleListener(messageService), this);
+
+        // Keep spawn areas loaded
+        chunkWarmupService.warmAll();
+
+        // Open the return point log
+        returnPointStore.start();
+
+        // Open the teleport journal
+        journal.start();
+
+        // Pre-generate random teleport destinations
+        randomTeleportService.start();
+
+        // Unload idle on-demand worlds
+        worldLifecycleService.start();
+
+        // Connect to the other backends
+        proxyRouter.start();
+
+        // Start releasing queued teleports
+        admissionController.start();
+
+        // Export metrics
+        startMetricsExport();
+
+        // Expose the API to other plugins
+        getServer().getServicesManager().register(WorldLinkAPI.class,
+                new WorldLinkAPIService(worldRegistry, admissionController, teleportService, spawnConfigUtils),
+                this, ServicePriority.Normal);
+
+        // Apply external edits to config.yml
+        this.configWatcher = new ConfigWatcher(this, configUtils, this::applyExternalConfigChange);
+        configWatcher.start();
 
         getLogger().info("WorldLink enabled.");
     }
 
     /**
-     * Called when the plugin is disabled. Unregisters commands and performs
-     * any necessary cleanup.
+     * Registers the ACF context resolver and tab completion for {@link TargetWorld}
+     * arguments, both backed by the {@link WorldRegistry} snapshot.
+     */
+    private void registerWorldArgument() {
+        commandManager.getCommandContexts().registerContext(TargetWorld.class, context -> {
+            String input = context.popFirstArg();
+            TargetWorld target = worldRegistry.resolve(input);
+            if (target == null) {
+                throw new InvalidCommandArgument("Unknown world: " + input);
+            }
+            return target;
+        });
+        commandManager.getCommandCompletions().registerAsyncCompletion("worlds", context -> worldRegistry.getCompletions());
+    }
+
+    /**
+     * Registers the ACF context resolver and tab completion for
+     * {@link SpawnStrategy} arguments, matched by their configuration key.
+     */
+    private void registerSpawnStrategyArgument() {
+        commandManager.getCommandContexts().registerContext(SpawnStrategy.class, context -> {
+            String input = context.popFirstArg();
+            SpawnStrategy strategy = SpawnStrategy.fromKey(input);
+            if (strategy == null) {
+                throw new InvalidCommandArgument("Unknown spawn strategy: " + input);
+            }
+            return strategy;
+        });
+        commandManager.getCommandCompletions().registerStaticCompletion("spawnstrategies",
+                Arrays.stream(SpawnStrategy.values()).map(SpawnStrategy::getKey).toList());
+    }
+
+    /**
+     * Reloads {@code config.yml} without blocking the server.
+     * <p>
+     * The file is parsed and validated off the main thread and published as a
+     * single {@link ConfigSnapshot}; an invalid file fails the returned future
+     * and leaves the running configuration untouched. Caches derived from
+     * loaded worlds are then rebuilt on the global region before the future
+     * completes.
+     *
+     * @return a future completed on the global region with the published snapshot
+     */
+    public CompletableFuture<ConfigSnapshot> reloadConfiguration() {
+        return applyReload(configUtils.reloadAsync(), null);
+    }
+
+    /**
+     * Called by the {@link ConfigWatcher} after {@code config.yml} changed on disk.
+     * Only the caches derived from the changed entries are rebuilt. Only logs;
+     * an invalid edit is ignored and the running configuration kept.
+     */
+    private void applyExternalConfigChange() {
+        ConfigSnapshot previous = configUtils.getSnapshot();
+        applyReload(configUtils.reloadIfChangedAsync(), previous).whenComplete((snapshot, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                getLogger().warning("Ignoring invalid change to config.yml: " + cause.getMessage());
+            } else if (snapshot != null) {
+                getLogger().info("Applied change to config.yml: " + snapshot.changedEntries(previous));
+            }
+        });
+    }
+
+    /**
+     * @param previous the snapshot replaced by the reload, to rebuild only what
+     *                 changed, or {@code null} to rebuild everything and reload
+     *                 the message bundles
+     */
+    private CompletableFuture<ConfigSnapshot> applyReload(CompletableFuture<ConfigSnapshot> reload,
+                                                          ConfigSnapshot previous) {
+        // Runs on the configuration I/O thread that completed the reload.
+        return reload.thenApply(snapshot -> {
+            if (snapshot == null) {
+                return null;
+            }
+
+            ReloadScope scope = previous == null ? ReloadScope.full(snapshot) : ReloadScope.between(previous, snapshot);
+            if (scope.messages()) {
+                messageService.loadBundles();
+            }
+            return scope;
+        }).thenApplyAsync(scope -> {
+            if (scope == null) {
+                return null;
+            }
+
+            // Pools are bound to the published snapshot; only those of changed records are rebuilt.
+            spawnConfigUtils.rebuildLocations();
+            if (scope.worlds()) {
+                worldRegistry.reload();
+            }
+            if (scope.spawns() || scope.chunkWarmup()) {
+                chunkWarmupService.warmAll();
+            }
+            metrics.setEnabled(configUtils.getBoolean("metrics.enabled"));
+            return scope.snapshot();
+        }, taskScheduler::runGlobal);
+    }
+
+    /**
+     * The parts of the configuration a reload changed, deciding which derived
+     * caches are rebuilt.
+     */
+    private record ReloadScope(ConfigSnapshot snapshot, boolean messages, boolean spawns,
+                               boolean chunkWarmup, boolean worlds) {
+
+        private static ReloadScope full(ConfigSnapshot snapshot) {
+            return new ReloadScope(snapshot, true, true, true, true);
+        }
+
+        private static ReloadScope between(ConfigSnapshot previous, ConfigSnapshot snapshot) {
+            boolean messages = false;
+            boolean spawns = false;
+            for (String path : snapshot.changedEntries(previous)) {
+                messages |= path.startsWith("messages.");
+                spawns |= path.startsWith("spawns.");
+            }
+
+            return new ReloadScope(
+                    snapshot,
+                    messages,
+                    spawns,
+                    snapshot.sectionChanged(previous, "chunk-warmup"),
+                    snapshot.sectionChanged(previous, "worlds")
+            );
+        }
+    }
+
+    /**
+     * Registers the configured metrics exporters and schedules them on an
+     * asynchronous timer. Both happen even while metrics are disabled, so that
+     * enabling them with a reload starts the export; the timer does nothing
+     * until then.
+     */
+    private void startMetricsExport() {
+        String prometheusFile = configUtils.getString("metrics.prometheus-file", "");
+        if (!prometheusFile.isBlank()) {
+            metrics.registerExporter(new PrometheusTextExporter(getDataFolder().toPath().resolve(prometheusFile)));
+        }
+
+        long intervalTicks = Math.max(1, configUtils.getInt("metrics.export-interval-seconds", 60)) * 20L;
+        taskScheduler.runAsyncTimer(metrics::exportAll, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Called when the plugin is disabled. Unregisters commands, flushes pending
+     * configuration writes and performs any necessary cleanup.
      */
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+
         if (commandManager != null) {
             commandManager.unregisterCommands();
         }
 
+        if (configWatcher != null) {
+            configWatcher.shutdown();
+        }
+
+        if (warmupService != null) {
+            warmupService.shutdown();
+        }
+
+        if (admissionController != null) {
+            admissionController.shutdown();
+        }
+
+        if (proxyRouter != null) {
+            proxyRouter.shutdown();
+        }
+
+        if (chunkWarmupService != null) {
+            chunkWarmupService.releaseAll();
+        }
+
+        if (chunkTickets != null) {
+            chunkTickets.clear();
+        }
+
+        if (worldLifecycleService != null) {
+            worldLifecycleService.shutdown();
+        }
+
+        if (journal != null) {
+            journal.shutdown();
+        }
+
+        if (randomTeleportService != null) {
+            randomTeleportService.shutdown();
+        }
+
+        if (returnPointStore != null) {
+            returnPointStore.shutdown();
+        }
+
+        if (configUtils != null) {
+            configUtils.shutdown();
+        }
+
         getLogger().info("WorldLink disabled.");
     }
 }
@@ -0,0 +1,72 @@
+package com.github.hanielcota.api;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.BatchTeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point for other plugins, registered in Bukkit's services manager:
+ * <pre>
+ * WorldLinkAPI api = Bukkit.getServicesManager().load(WorldLinkAPI.class);
+ * </pre>
+ * Teleports started here skip permissions, cooldowns and warmups, but share
+ * the per-world capacity of player commands and fire the same
+ * {@link com.github.hanielcota.events.WorldLinkPreTeleportEvent} and
+ * {@link com.github.hanielcota.events.WorldLinkTeleportCompleteEvent}.
+ */
+public interface WorldLinkAPI {
+
+    /**
+     * Looks up a world by name or alias, ignoring case.
+     *
+     * @param name the world name or alias
+     * @return the registry entry, or {@code null} if unknown
+     */
+    TargetWorld resolveWorld(String name);
+
+    /**
+     * @return the names and aliases of every world players can teleport to
+     */
+    List<String> getWorldNames();
+
+    /**
+     * Teleports a player to a world, as {@code /tpworld <world>} does.
+     *
+     * @param player      the player to teleport
+     * @param targetWorld the target world
+     * @return a future completed once with the teleport result
+     */
+    CompletableFuture<TeleportResult> teleport(Player player, TargetWorld targetWorld);
+
+    /**
+     * Teleports a player to a random destination of a world, as
+     * {@code /tpworld <world> random} does.
+     *
+     * @param player      the player to teleport
+     * @param targetWorld the target world
+     * @return a future completed once with the teleport result
+     */
+    CompletableFuture<TeleportResult> teleportToRandomLocation(Player player, TargetWorld targetWorld);
+
+    /**
+     * Teleports a group of players to the spawn of a world, a few per tick.
+     *
+     * @param players     the players to teleport
+     * @param targetWorld the target world
+     * @return a future completing once every player finished, with a per-result breakdown
+     */
+    CompletableFuture<BatchTeleportResult> teleportAll(Collection<? extends Player> players, TargetWorld targetWorld);
+
+    /**
+     * @param world a loaded world
+     * @return a copy of the world's primary spawn location
+     */
+    Location getSpawnLocation(World world);
+}
@@ -0,0 +1,62 @@
+package com.github.hanielcota.api;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.BatchTeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.services.TeleportAdmissionController;
+import com.github.hanielcota.services.TeleportService;
+import com.github.hanielcota.services.WorldRegistry;
+import com.github.hanielcota.utils.SpawnConfigUtils;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link WorldLinkAPI} backed by the plugin's services.
+ */
+@RequiredArgsConstructor
+public class WorldLinkAPIService implements WorldLinkAPI {
+
+    private final WorldRegistry worldRegistry;
+    private final TeleportAdmissionController admissionController;
+    private final TeleportService teleportService;
+    private final SpawnConfigUtils spawnConfigUtils;
+
+    @Override
+    public TargetWorld resolveWorld(String name) {
+        return worldRegistry.resolve(name);
+    }
+
+    @Override
+    public List<String> getWorldNames() {
+        return worldRegistry.getCompletions();
+    }
+
+    @Override
+    public CompletableFuture<TeleportResult> teleport(Player player, TargetWorld targetWorld) {
+        return admissionController.submit(player, targetWorld, false);
+    }
+
+    @Override
+    public CompletableFuture<TeleportResult> teleportToRandomLocation(Player player, TargetWorld targetWorld) {
+        return admissionController.submit(player, targetWorld, true);
+    }
+
+    @Override
+    public CompletableFuture<BatchTeleportResult> teleportAll(Collection<? extends Player> players, TargetWorld targetWorld) {
+        return teleportService.teleportAll(players, targetWorld);
+    }
+
+    @Override
+    public Location getSpawnLocation(World world) {
+        if (world == null) {
+            throw new IllegalArgumentException("World cannot be null");
+        }
+        return spawnConfigUtils.getSpawnLocation(world);
+    }
+}
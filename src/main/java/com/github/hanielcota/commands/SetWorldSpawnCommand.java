@@ -1,23 +1,37 @@
 package com.github.hanielcota.commands;
 
 import co.aikar.commands.BaseCommand;
+import co.aikar.commands.InvalidCommandArgument;
 import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
+import co.aikar.commands.annotation.CommandPermission;
 import co.aikar.commands.annotation.Default;
 import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import com.github.hanielcota.enums.SpawnStrategy;
+import com.github.hanielcota.models.SpawnPoint;
+import com.github.hanielcota.models.SpawnRecord;
+import com.github.hanielcota.services.ChunkWarmupService;
 import com.github.hanielcota.utils.ConfigUtils;
 import com.github.hanielcota.utils.MessageService;
+import com.github.hanielcota.utils.SpawnConfigUtils;
 import lombok.RequiredArgsConstructor;
-import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
-import java.util.Locale;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Command used to set a custom spawn point for the current world.
+ * Command used to set the custom spawn points of the current world.
  * <p>
- * Saves the player's current location into the plugin configuration under the
- * path {@code spawns.<world>} using the format {@code x,y,z,yaw,pitch}.
+ * Saves the player's current location into the plugin configuration as a
+ * spawn record under the path {@code spawns.<world uuid>}. Besides the primary
+ * spawn, a world can have additional weighted points that teleports are spread
+ * across; they are listed and addressed by a 1-based index, the primary being
+ * {@code #1}.
  */
 @CommandAlias("setworldspawn")
 @RequiredArgsConstructor
@@ -25,12 +39,15 @@ public class SetWorldSpawnCommand extends BaseCommand {
 
     private final ConfigUtils config;
     private final MessageService messageService;
+    private final SpawnConfigUtils spawnConfigUtils;
+    private final ChunkWarmupService chunkWarmupService;
 
     /**
      * Handles the /setworldspawn command for the executing player.
      * <p>
-     * The player's precise coordinates (with yaw/pitch) are formatted and stored
-     * in the configuration. A confirmation message is sent to the player.
+     * The player's precise coordinates (with yaw/pitch) are stored
+     * in the configuration, replacing the primary spawn of the world, and the
+     * spawn area is warmed again. A confirmation message is sent to the player.
      *
      * @param player the player executing the command (injected by ACF)
      */
@@ -39,20 +56,123 @@ public class SetWorldSpawnCommand extends BaseCommand {
     public void onSetSpawn(Player player) {
         if (player == null) return;
 
-        Location loc = player.getLocation();
-        String worldName = loc.getWorld().getName();
+        World world = player.getWorld();
+        SpawnPoint spawn = SpawnPoint.of(player.getLocation());
 
-        double x = loc.getX();
-        double y = loc.getY();
-        double z = loc.getZ();
-        float yaw = loc.getYaw();
-        float pitch = loc.getPitch();
+        spawnConfigUtils.setSpawn(world, spawn);
+        config.saveConfig();
+        chunkWarmupService.warm(world);
+
+        messageService.send(player, "set-spawn", Map.of("world", world.getName(), "coords", spawn.format()));
+    }
+
+    /**
+     * Adds the player's position as another spawn point of the current world.
+     *
+     * @param player the player executing the command (injected by ACF)
+     * @param weight the relative share of teleports the point receives
+     */
+    @Subcommand("add")
+    @CommandPermission("worldlink.admin")
+    @Syntax("[weight]")
+    @Description("Add your position as another spawn point of the current world.")
+    public void onAdd(Player player, @Default("1") double weight) {
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            throw new InvalidCommandArgument("The weight must be a positive number.");
+        }
+
+        World world = player.getWorld();
+        SpawnPoint spawn = SpawnPoint.of(player.getLocation());
+
+        int index = spawnConfigUtils.addSpawnPoint(world, spawn, weight);
+        config.saveConfig();
+        chunkWarmupService.warm(world);
+
+        messageService.send(player, "spawn-added", Map.of(
+                "world", world.getName(),
+                "index", Integer.toString(index + 1),
+                "coords", spawn.format(),
+                "weight", formatWeight(weight)
+        ));
+    }
+
+    /**
+     * Removes one spawn point of the current world.
+     *
+     * @param player the player executing the command (injected by ACF)
+     * @param index  the 1-based index shown by {@code /setworldspawn list}
+     */
+    @Subcommand("remove")
+    @CommandPermission("worldlink.admin")
+    @Syntax("<index>")
+    @Description("Remove a spawn point of the current world.")
+    public void onRemove(Player player, int index) {
+        World world = player.getWorld();
+        Map<String, String> placeholders = Map.of("world", world.getName(), "index", Integer.toString(index));
 
-        String value = String.format(Locale.ROOT, "%.6f,%.6f,%.6f,%.2f,%.2f", x, y, z, yaw, pitch);
+        if (!spawnConfigUtils.removeSpawnPoint(world, index - 1)) {
+            messageService.send(player, "spawn-not-removable", placeholders);
+            return;
+        }
 
-        config.getConfig().set("spawns." + worldName, value);
         config.saveConfig();
+        chunkWarmupService.warm(world);
+        messageService.send(player, "spawn-removed", placeholders);
+    }
+
+    /**
+     * Lists the spawn points of the current world.
+     *
+     * @param player the player executing the command (injected by ACF)
+     */
+    @Subcommand("list")
+    @Description("List the spawn points of the current world.")
+    public void onList(Player player) {
+        World world = player.getWorld();
+        SpawnRecord spawn = spawnConfigUtils.getSpawnRecord(world);
+        if (spawn == null) {
+            messageService.send(player, "spawn-not-set", Map.of("world", world.getName()));
+            return;
+        }
+
+        messageService.send(player, "spawn-list-header", Map.of(
+                "world", world.getName(),
+                "strategy", spawn.strategy().getKey()
+        ));
+
+        List<SpawnRecord.WeightedPoint> points = spawn.points();
+        for (int i = 0; i < points.size(); i++) {
+            messageService.send(player, "spawn-list-entry", Map.of(
+                    "index", Integer.toString(i + 1),
+                    "coords", points.get(i).point().format(),
+                    "weight", formatWeight(points.get(i).weight())
+            ));
+        }
+    }
+
+    /**
+     * Changes how teleports pick one of the spawn points of the current world.
+     *
+     * @param player   the player executing the command (injected by ACF)
+     * @param strategy the strategy (resolved by ACF from its configuration key)
+     */
+    @Subcommand("strategy")
+    @CommandPermission("worldlink.admin")
+    @Syntax("<strategy>")
+    @CommandCompletion("@spawnstrategies")
+    @Description("Choose how teleports pick a spawn point of the current world.")
+    public void onStrategy(Player player, SpawnStrategy strategy) {
+        World world = player.getWorld();
+        if (!spawnConfigUtils.setStrategy(world, strategy)) {
+            messageService.send(player, "spawn-not-set", Map.of("world", world.getName()));
+            return;
+        }
+
+        config.saveConfig();
+        messageService.send(player, "spawn-strategy-set", Map.of("world", world.getName(), "strategy", strategy.getKey()));
+    }
 
-        messageService.send(player, "set-spawn", Map.of("world", worldName, "coords", value));
+    private static String formatWeight(double weight) {
+        return BigDecimal.valueOf(weight).stripTrailingZeros().toPlainString();
     }
 }
@@ -0,0 +1,233 @@
+package com.github.hanielcota.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Default;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import com.github.hanielcota.WorldLink;
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.metrics.LatencyHistogram;
+import com.github.hanielcota.metrics.TeleportMetrics;
+import com.github.hanielcota.services.TeleportAdmissionController;
+import com.github.hanielcota.services.WorldLifecycleService;
+import com.github.hanielcota.utils.MessageService;
+import com.github.hanielcota.utils.TeleportJournal;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+
+/**
+ * Administrative command exposing WorldLink internals.
+ * <p>
+ * Registered alias: {@code worldlink}.
+ */
+@CommandAlias("worldlink")
+@CommandPermission("worldlink.admin")
+@RequiredArgsConstructor
+public class WorldLinkCommand extends BaseCommand {
+
+    private static final DateTimeFormatter JOURNAL_TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+    private static final int MAX_JOURNAL_LIMIT = 100;
+
+    private final WorldLink plugin;
+    private final MessageService messageService;
+    private final TeleportMetrics metrics;
+    private final TeleportAdmissionController admissionController;
+    private final WorldLifecycleService worldLifecycle;
+    private final TeleportJournal journal;
+
+    /**
+     * Prints teleport counters, latency percentiles and queue statistics.
+     *
+     * @param sender the command sender
+     */
+    @Subcommand("metrics")
+    @Description("Show teleport counters, latencies and queue statistics.")
+    public void onMetrics(CommandSender sender) {
+        if (!metrics.isEnabled()) {
+            sender.sendMessage("§eMetrics collection is disabled (metrics.enabled).");
+        }
+
+        sender.sendMessage("§6WorldLink teleport metrics");
+
+        StringBuilder results = new StringBuilder("§7Results:");
+        for (TeleportResult result : TeleportResult.values()) {
+            results.append(" §f").append(result.name().toLowerCase(Locale.ROOT))
+                    .append("§7=").append(metrics.getCount(result));
+        }
+        sender.sendMessage(results.toString());
+
+        StringBuilder worlds = new StringBuilder("§7Worlds:");
+        for (Map.Entry<String, Long> entry : metrics.getWorldCounts().entrySet()) {
+            worlds.append(" §f").append(entry.getKey())
+                    .append("§7=").append(entry.getValue());
+        }
+        sender.sendMessage(worlds.toString());
+
+        sender.sendMessage(formatHistogram("Teleport", metrics.getTeleportLatency()));
+        sender.sendMessage(formatHistogram("Delivery", metrics.getDeliveryLatency()));
+        sender.sendMessage(formatHistogram("Total", metrics.getTotalLatency()));
+
+        sender.sendMessage(String.format(Locale.ROOT, "§7Queue wait: §favg %.1f ms§7, §fmax %.1f ms",
+                admissionController.getAverageWaitMillis(), admissionController.getMaxWaitMillis()));
+        for (Map.Entry<String, TeleportAdmissionController.QueueStats> entry : admissionController.getQueueStats().entrySet()) {
+            sender.sendMessage("§7  " + entry.getKey() + ": §fqueued " + entry.getValue().queued()
+                    + "§7, §fin-flight " + entry.getValue().inFlight());
+        }
+    }
+
+    /**
+     * Prints the loaded-world count, heap usage and the state of every world
+     * loaded on demand.
+     *
+     * @param sender the command sender
+     */
+    @Subcommand("worlds")
+    @Description("Show loaded worlds, heap usage and on-demand world states.")
+    public void onWorlds(CommandSender sender) {
+        Runtime runtime = Runtime.getRuntime();
+        sender.sendMessage(String.format(Locale.ROOT, "§6Loaded worlds: §f%d§7, heap used §f%d MB§7 of §f%d MB",
+                worldLifecycle.getLoadedWorldCount(), worldLifecycle.getUsedHeapMegabytes(),
+                runtime.maxMemory() / (1024L * 1024L)));
+
+        for (Map.Entry<String, WorldLifecycleService.WorldStats> entry : worldLifecycle.getStats().entrySet()) {
+            WorldLifecycleService.WorldStats stats = entry.getValue();
+            sender.sendMessage("§7  " + entry.getKey() + ": " + (stats.loaded() ? "§aloaded" : "§cunloaded")
+                    + "§7, idle §f" + stats.idleSeconds() + "s§7/§f" + stats.idleLimitSeconds() + "s"
+                    + "§7, loads §f" + stats.loads() + "§7, unloads §f" + stats.unloads());
+        }
+    }
+
+    /**
+     * Prints the newest journal entries of a player.
+     *
+     * @param sender     the command sender
+     * @param playerName the player name
+     * @param limit      the maximum number of entries
+     */
+    @Subcommand("journal player")
+    @Syntax("<player> [limit]")
+    @CommandCompletion("@players")
+    @Description("Show the latest teleports of a player.")
+    public void onJournalPlayer(CommandSender sender, String playerName, @Default("10") int limit) {
+        OfflinePlayer player = Bukkit.getPlayerExact(playerName);
+        if (player == null) {
+            player = Bukkit.getOfflinePlayerIfCached(playerName);
+        }
+        if (player == null) {
+            sender.sendMessage("§cUnknown player: " + playerName);
+            return;
+        }
+
+        sendJournal(sender, "player " + playerName, journal.queryPlayer(player.getUniqueId(), clampLimit(limit)));
+    }
+
+    /**
+     * Prints the newest journal entries that left or targeted a world.
+     *
+     * @param sender    the command sender
+     * @param worldName the world name
+     * @param limit     the maximum number of entries
+     */
+    @Subcommand("journal world")
+    @Syntax("<world> [limit]")
+    @CommandCompletion("@worlds")
+    @Description("Show the latest teleports from or to a world.")
+    public void onJournalWorld(CommandSender sender, String worldName, @Default("10") int limit) {
+        sendJournal(sender, "world " + worldName, journal.queryWorld(worldName, clampLimit(limit)));
+    }
+
+    private void sendJournal(CommandSender sender, String subject, CompletableFuture<List<TeleportJournal.Entry>> query) {
+        if (!journal.isEnabled()) {
+            sender.sendMessage("§eThe teleport journal is disabled (journal.enabled).");
+            return;
+        }
+
+        query.whenComplete((entries, ex) -> plugin.getTaskScheduler().runFor(sender, () -> {
+            if (ex != null) {
+                plugin.getLogger().log(Level.WARNING, "Could not read the teleport journal", ex);
+                sender.sendMessage("§cCould not read the teleport journal: " + ex.getMessage());
+                return;
+            }
+
+            sender.sendMessage("§6Teleport journal for " + subject + " §7(written §f" + journal.getWritten()
+                    + "§7, dropped §f" + journal.getDropped() + "§7)");
+            for (TeleportJournal.Entry entry : entries) {
+                sender.sendMessage(formatEntry(entry));
+            }
+            if (entries.isEmpty()) {
+                sender.sendMessage("§7  No entries.");
+            }
+        }));
+    }
+
+    private static String formatEntry(TeleportJournal.Entry entry) {
+        String from = entry.fromWorld().isEmpty()
+                ? "?"
+                : String.format(Locale.ROOT, "%s %.0f, %.0f, %.0f", entry.fromWorld(), entry.x(), entry.y(), entry.z());
+        return String.format(Locale.ROOT, "§7%s §f%s §7%s → §f%s §7%s §f%.1f ms",
+                JOURNAL_TIME.format(Instant.ofEpochMilli(entry.epochMillis())),
+                playerName(entry.playerId()), from, entry.targetWorld(),
+                entry.result().name().toLowerCase(Locale.ROOT), entry.latencyMicros() / 1000.0);
+    }
+
+    private static String playerName(UUID playerId) {
+        String name = Bukkit.getOfflinePlayer(playerId).getName();
+        return name != null ? name : playerId.toString();
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(MAX_JOURNAL_LIMIT, limit));
+    }
+
+    /**
+     * Reloads the configuration without restarting the server. An invalid
+     * file is rejected and the running configuration is kept.
+     *
+     * @param sender the command sender
+     */
+    @Subcommand("reload")
+    @Description("Reload config.yml without restarting the server.")
+    public void onReload(CommandSender sender) {
+        plugin.reloadConfiguration().whenComplete((snapshot, ex) -> {
+            if (ex == null) {
+                plugin.getTaskScheduler().runFor(sender, () -> messageService.send(sender, "reload-success", Map.of()));
+                return;
+            }
+
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            plugin.getLogger().log(Level.WARNING, "Configuration reload rejected", cause);
+            String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            plugin.getTaskScheduler().runFor(sender, () ->
+                    messageService.send(sender, "reload-failed", Map.of("error", error)));
+        });
+    }
+
+    private static String formatHistogram(String label, LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "§7%s latency: §fn=%d §7p50 §f≤%s ms §7p99 §f≤%s ms",
+                label, histogram.getCount(),
+                formatMillis(histogram.percentileMillis(50)),
+                formatMillis(histogram.percentileMillis(99)));
+    }
+
+    private static String formatMillis(double millis) {
+        return Double.isInfinite(millis) ? "∞" : String.format(Locale.ROOT, "%.0f", millis);
+    }
+}
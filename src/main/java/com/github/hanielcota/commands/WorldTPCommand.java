@@ -2,22 +2,38 @@ package com.github.hanielcota.commands;
 
 import co.aikar.commands.BaseCommand;
 import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandCompletion;
+import co.aikar.commands.annotation.CommandPermission;
 import co.aikar.commands.annotation.Default;
 import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Optional;
+import co.aikar.commands.annotation.Subcommand;
 import co.aikar.commands.annotation.Syntax;
+import co.aikar.commands.annotation.Values;
 import com.github.hanielcota.enums.TeleportResult;
-import com.github.hanielcota.enums.TeleportTargetWorld;
+import com.github.hanielcota.metrics.TeleportMetrics;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.services.TeleportAdmissionController;
+import com.github.hanielcota.services.TeleportRateLimiter;
 import com.github.hanielcota.services.TeleportService;
+import com.github.hanielcota.services.TeleportWarmupService;
+import com.github.hanielcota.utils.MessageKey;
 import com.github.hanielcota.utils.MessageService;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * Command that teleports a player to a configured world spawn.
+ * Command that teleports a player to a configured world spawn, or to a random
+ * destination of the world with {@code /tpworld <world> random}.
  * <p>
  * Registered aliases: {@code tpworld}, {@code worldtp}.
  */
@@ -25,40 +41,155 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class WorldTPCommand extends BaseCommand {
 
-    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final TeleportAdmissionController admissionController;
     private final TeleportService teleportService;
     private final MessageService messageService;
+    private final TeleportMetrics metrics;
+    private final TeleportRateLimiter rateLimiter;
+    private final TeleportWarmupService warmupService;
 
-    private static final Map<TeleportResult, String> RESULT_KEYS = Map.of(
-            TeleportResult.SUCCESS, "success",
-            TeleportResult.WORLD_NOT_FOUND, "world-not-found",
-            TeleportResult.LOCATION_NOT_SAFE, "location-not-safe",
-            TeleportResult.GENERIC_FAILURE, "generic-failure"
+    private static final MessageKey GENERIC_FAILURE = MessageKey.of("generic-failure");
+    private static final MessageKey NO_PERMISSION = MessageKey.of("no-permission");
+    private static final MessageKey TELEPORTING = MessageKey.of("teleporting");
+
+    private static final Map<TeleportResult, MessageKey> RESULT_KEYS = Map.of(
+            TeleportResult.SUCCESS, MessageKey.of("success"),
+            TeleportResult.WORLD_NOT_FOUND, MessageKey.of("world-not-found"),
+            TeleportResult.LOCATION_NOT_SAFE, MessageKey.of("location-not-safe"),
+            TeleportResult.GENERIC_FAILURE, GENERIC_FAILURE,
+            TeleportResult.TRANSFERRED, MessageKey.of("transferred"),
+            TeleportResult.ON_COOLDOWN, MessageKey.of("on-cooldown"),
+            TeleportResult.RATE_LIMITED, MessageKey.of("rate-limited"),
+            TeleportResult.CANCELLED, MessageKey.of("warmup-cancelled"),
+            TeleportResult.RANDOM_UNAVAILABLE, MessageKey.of("random-unavailable"),
+            TeleportResult.NO_RANDOM_LOCATION, MessageKey.of("no-random-location")
+    );
+
+    // Failures the player did not cause; a cancelled warmup or teleport keeps its cost.
+    private static final Set<TeleportResult> REFUNDED_RESULTS = EnumSet.of(
+            TeleportResult.WORLD_NOT_FOUND,
+            TeleportResult.LOCATION_NOT_SAFE,
+            TeleportResult.GENERIC_FAILURE,
+            TeleportResult.RANDOM_UNAVAILABLE,
+            TeleportResult.NO_RANDOM_LOCATION
     );
 
     /**
      * Executes the teleport command for the calling player.
      * <p>
-     * This method expects a {@link TeleportTargetWorld} parameter resolved by ACF.
-     * It sends a "teleporting" message, performs the async teleport and then sends a
-     * result message on the main thread when the teleport completes.
+     * This method expects a {@link TargetWorld} parameter resolved by ACF from the
+     * world registry. Worlds guarded by a permission are refused first with the
+     * "no-permission" message, then cooldowns and rate limits are checked by the
+     * {@link TeleportRateLimiter}. After the warmup countdown of the
+     * {@link TeleportWarmupService}, it sends a "teleporting" message, submits the teleport to the admission
+     * controller (which may queue it) and then sends a result message on the
+     * player's thread when the teleport completes. A request that ends without
+     * a teleport, because the warmup was cancelled or the teleport failed, gets
+     * its rate limit tokens and cooldown back.
      *
      * @param player      the player executing the command (injected by ACF)
-     * @param targetWorld the target world enum value (injected by ACF)
+     * @param targetWorld the target world registry entry (injected by ACF)
+     * @param mode        {@code random} to land on a random destination instead of the spawn
      */
     @Default
-    @Syntax("<world>")
+    @Syntax("<world> [random]")
+    @CommandCompletion("@worlds random")
     @Description("Teleport to a predefined world.")
-    public void onTeleport(Player player, TeleportTargetWorld targetWorld) {
+    public void onTeleport(Player player, TargetWorld targetWorld, @Optional @Values("random") String mode) {
         if (player == null) return;
         if (targetWorld == null) return;
 
-        messageService.send(player, "teleporting", Map.of("world", targetWorld.name()));
+        if (targetWorld.requiresPermission() && !player.hasPermission(targetWorld.permission())) {
+            messageService.send(player, NO_PERMISSION, Map.of("world", targetWorld.displayName()));
+            return;
+        }
+
+        TeleportResult limited = rateLimiter.tryAcquire(player, targetWorld);
+        if (limited != TeleportResult.SUCCESS) {
+            long now = metrics.now();
+            long seconds = (rateLimiter.getRemainingCooldownMillis(player, targetWorld) + 999) / 1000;
+            messageService.send(player, RESULT_KEYS.get(limited), Map.of(
+                    "world", targetWorld.displayName(),
+                    "seconds", Long.toString(seconds)
+            ));
+            metrics.record(targetWorld, limited, now, now, now);
+            return;
+        }
+
+        warmupService.warmup(player, targetWorld).thenAcceptAsync(warmup -> {
+            if (warmup == TeleportResult.SUCCESS) {
+                dispatch(player, targetWorld, mode != null);
+                return;
+            }
+
+            if (REFUNDED_RESULTS.contains(warmup)) {
+                rateLimiter.refund(player, targetWorld);
+            }
+            long now = metrics.now();
+            messageService.send(player, RESULT_KEYS.get(warmup), Map.of("world", targetWorld.displayName()));
+            metrics.record(targetWorld, warmup, now, now, now);
+        }, scheduler.entityExecutor(player));
+    }
+
+    private void dispatch(Player player, TargetWorld targetWorld, boolean random) {
+        long dispatched = metrics.now();
+        messageService.send(player, TELEPORTING, Map.of("world", targetWorld.displayName()));
+
+        admissionController.submit(player, targetWorld, random).thenAccept(result -> {
+            long completed = metrics.now();
+            scheduler.runForEntity(player, () -> {
+                if (REFUNDED_RESULTS.contains(result)) {
+                    rateLimiter.refund(player, targetWorld);
+                }
+                MessageKey messageKey = RESULT_KEYS.getOrDefault(result, GENERIC_FAILURE);
+                messageService.send(player, messageKey, Map.of("world", targetWorld.worldName()));
+                metrics.record(targetWorld, result, dispatched, completed, metrics.now());
+            });
+        });
+    }
+
+    /**
+     * Moves every player in one world to the spawn of another world.
+     * <p>
+     * The teleports are spread across ticks by {@link TeleportService#teleportAll}.
+     * The sender is told how many players are being moved and, once all of them
+     * finished, how many succeeded and failed.
+     *
+     * @param sender the command sender
+     * @param from   the world to empty
+     * @param to     the destination world
+     */
+    @Subcommand("evacuate")
+    @Syntax("<from> <to>")
+    @CommandCompletion("@worlds @worlds")
+    @CommandPermission("worldlink.admin")
+    @Description("Teleport every player in a world to another world.")
+    public void onEvacuate(CommandSender sender, TargetWorld from, TargetWorld to) {
+        if (from == null || to == null) return;
+
+        World source = Bukkit.getWorld(from.worldName());
+        if (source == null) {
+            messageService.send(sender, "world-not-found", Map.of("world", from.worldName()));
+            return;
+        }
+
+        List<Player> players = List.copyOf(source.getPlayers());
+        messageService.send(sender, "evacuate-start", Map.of(
+                "count", Integer.toString(players.size()),
+                "from", from.worldName(),
+                "to", to.worldName()
+        ));
 
-        teleportService.teleportToWorld(player, targetWorld).thenAccept(result ->
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    String messageKey = RESULT_KEYS.getOrDefault(result, "generic-failure");
-                    messageService.send(player, messageKey, Map.of("world", targetWorld.getWorldName()));
+        teleportService.teleportAll(players, to).thenAccept(result ->
+                scheduler.runFor(sender, () -> {
+                    int succeeded = result.count(TeleportResult.SUCCESS);
+                    messageService.send(sender, "evacuate-done", Map.of(
+                            "from", from.worldName(),
+                            "to", to.worldName(),
+                            "success", Integer.toString(succeeded),
+                            "failed", Integer.toString(result.total() - succeeded)
+                    ));
                 })
         );
     }
@@ -0,0 +1,49 @@
+package com.github.hanielcota.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * How a world with several spawn points picks the one a teleported player lands on.
+ * <p>
+ * Each constant is stored in the configuration under its {@link #getKey() key}.
+ */
+@Getter
+public enum SpawnStrategy {
+
+    /** Cycles through the points in order. */
+    ROUND_ROBIN("round-robin"),
+    /** Picks a random point, in proportion to the point weights. */
+    WEIGHTED("weighted"),
+    /** Picks the point that was picked the longest time ago. */
+    LEAST_RECENTLY_USED("least-recently-used"),
+    /** Picks the point with the fewest players near it, relative to its weight. */
+    DENSITY("density");
+
+    private final String key;
+
+    SpawnStrategy(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Looks up a strategy by its configuration key.
+     *
+     * @param key the key, e.g. {@code round-robin}
+     * @return the matching strategy, or {@code null} if none matches
+     */
+    public static SpawnStrategy fromKey(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (SpawnStrategy strategy : values()) {
+            if (strategy.key.equals(normalized)) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
@@ -14,5 +14,17 @@ public enum TeleportResult {
     /** Resolved spawn location was not safe or could not be determined. */
     LOCATION_NOT_SAFE,
     /** A generic or unknown failure occurred during teleport. */
-    GENERIC_FAILURE
+    GENERIC_FAILURE,
+    /** Target world is hosted by another backend; the player was sent there. */
+    TRANSFERRED,
+    /** The player teleported too recently and is still on cooldown. */
+    ON_COOLDOWN,
+    /** A player, world or server-wide rate limit rejected the request. */
+    RATE_LIMITED,
+    /** The warmup was cancelled because the player moved, took damage or left, or a plugin cancelled the teleport. */
+    CANCELLED,
+    /** Random teleports are not configured for the target world. */
+    RANDOM_UNAVAILABLE,
+    /** The target world has no pre-validated random destination left right now. */
+    NO_RANDOM_LOCATION
 }
\ No newline at end of file
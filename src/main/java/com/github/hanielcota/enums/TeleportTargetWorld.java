@@ -7,6 +7,9 @@ import lombok.Getter;
  * Enum identifying the common world targets supported by the plugin.
  * <p>
  * Each enum constant maps to the actual world folder/name used by the server.
+ * The constants are registered as built-in aliases in
+ * {@link com.github.hanielcota.services.WorldRegistry}, so commands keep
+ * accepting {@code overworld}, {@code nether} and {@code the_end}.
  */
 @Getter
 public enum TeleportTargetWorld {
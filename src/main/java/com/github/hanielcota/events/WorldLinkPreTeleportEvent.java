@@ -0,0 +1,107 @@
+package com.github.hanielcota.events;
+
+import com.github.hanielcota.models.TargetWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Called on the player's thread right before WorldLink teleports a player
+ * within this server, once the destination has been resolved and checked, or
+ * sends them to another backend hosting the target world.
+ * <p>
+ * Cancelling the event aborts the teleport with
+ * {@link com.github.hanielcota.enums.TeleportResult#CANCELLED}; setting another
+ * destination sends the player there instead, without further safety checks.
+ * Transfers to other backends ({@link #isTransfer()}) have no local
+ * destination and can only be cancelled.
+ * <p>
+ * WorldLink only creates the event when it has listeners, see {@link #hasListeners()}.
+ */
+public class WorldLinkPreTeleportEvent extends PlayerEvent implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final TargetWorld targetWorld;
+    private final boolean transfer;
+    private Location destination;
+    private boolean cancelled;
+
+    /**
+     * @param player      the player
+     * @param targetWorld the world the player asked for
+     * @param destination the resolved destination, or {@code null} for a transfer to another backend
+     */
+    public WorldLinkPreTeleportEvent(Player player, TargetWorld targetWorld, Location destination) {
+        super(player, !Bukkit.isPrimaryThread());
+        this.targetWorld = targetWorld;
+        this.transfer = destination == null;
+        this.destination = destination;
+    }
+
+    /**
+     * @return whether the player is being sent to another backend
+     */
+    public boolean isTransfer() {
+        return transfer;
+    }
+
+    /**
+     * @return the world the player asked for
+     */
+    public TargetWorld getTargetWorld() {
+        return targetWorld;
+    }
+
+    /**
+     * @return a copy of the location the player will be sent to, or {@code null} for a transfer
+     */
+    public Location getDestination() {
+        return destination != null ? destination.clone() : null;
+    }
+
+    /**
+     * Replaces the destination.
+     *
+     * @param destination the new destination; its world must be loaded
+     * @throws IllegalStateException for a transfer to another backend
+     */
+    public void setDestination(Location destination) {
+        if (transfer) {
+            throw new IllegalStateException("The destination of a transfer cannot be changed");
+        }
+        if (destination == null || destination.getWorld() == null) {
+            throw new IllegalArgumentException("Destination must have a loaded world");
+        }
+        this.destination = destination.clone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    /**
+     * @return whether any plugin listens to this event
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
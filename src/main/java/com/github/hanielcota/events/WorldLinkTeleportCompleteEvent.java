@@ -0,0 +1,59 @@
+package com.github.hanielcota.events;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Called on the player's thread once a WorldLink teleport request finished,
+ * whatever its outcome, including requests that failed before a destination
+ * was found.
+ * <p>
+ * WorldLink only creates the event when it has listeners, see {@link #hasListeners()}.
+ */
+public class WorldLinkTeleportCompleteEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final TargetWorld targetWorld;
+    private final TeleportResult result;
+
+    public WorldLinkTeleportCompleteEvent(Player player, TargetWorld targetWorld, TeleportResult result) {
+        super(player, !Bukkit.isPrimaryThread());
+        this.targetWorld = targetWorld;
+        this.result = result;
+    }
+
+    /**
+     * @return the world the player asked for
+     */
+    public TargetWorld getTargetWorld() {
+        return targetWorld;
+    }
+
+    /**
+     * @return the outcome of the teleport
+     */
+    public TeleportResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return whether any plugin listens to this event
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.utils.MessageService;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener that keeps the cached message language of each player current.
+ */
+@RequiredArgsConstructor
+public class LocaleListener implements Listener {
+
+    private final MessageService messageService;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        messageService.updateLocale(event.getPlayer(), event.locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        messageService.forgetPlayer(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.proxy.ProxyRouter;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Listener that lets the {@link ProxyRouter} apply teleports requested by
+ * other backends and keep them informed about the worlds hosted here.
+ */
+@RequiredArgsConstructor
+public class ProxyListener implements Listener {
+
+    private final ProxyRouter proxyRouter;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        proxyRouter.onPlayerJoin(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        proxyRouter.onWorldLoad(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        proxyRouter.onWorldUnload(event.getWorld());
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.services.TeleportRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener that expires the cooldown and rate limit state of players who leave.
+ */
+@RequiredArgsConstructor
+public class RateLimitListener implements Listener {
+
+    private final TeleportRateLimiter rateLimiter;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        rateLimiter.forget(event.getPlayer());
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.utils.ReturnPointStore;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Listener that records where players leave each world and manages the
+ * lifetime of their cached return points.
+ */
+@RequiredArgsConstructor
+public class ReturnPointListener implements Listener {
+
+    private final ReturnPointStore returnPointStore;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        returnPointStore.load(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        returnPointStore.unload(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getWorld() != null && !from.getWorld().equals(to.getWorld())) {
+            returnPointStore.record(event.getPlayer(), from);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.utils.SpawnConfigUtils;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Listener that keeps the player counts of density-balanced spawn points in
+ * sync with where players are.
+ */
+@RequiredArgsConstructor
+public class SpawnDensityListener implements Listener {
+
+    private final SpawnConfigUtils spawnConfigUtils;
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (event.hasChangedBlock()) {
+            spawnConfigUtils.trackPlayer(event.getPlayer(), event.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (!from.getWorld().equals(to.getWorld())) {
+            spawnConfigUtils.untrackPlayer(event.getPlayer(), from.getWorld());
+        }
+        spawnConfigUtils.trackPlayer(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        spawnConfigUtils.trackPlayer(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        spawnConfigUtils.untrackPlayer(event.getPlayer(), event.getPlayer().getWorld());
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.services.TeleportWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Listener that cancels pending teleport warmups when the player moves to
+ * another block, takes damage or leaves.
+ */
+@RequiredArgsConstructor
+public class WarmupListener implements Listener {
+
+    private final TeleportWarmupService warmupService;
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (event.hasChangedBlock()) {
+            Location to = event.getTo();
+            warmupService.onMove(event.getPlayer(), to.getBlockX(), to.getBlockY(), to.getBlockZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Location to = event.getTo();
+        warmupService.onMove(event.getPlayer(), to.getBlockX(), to.getBlockY(), to.getBlockZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamage(EntityDamageEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            warmupService.onDamage(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        warmupService.cancel(event.getPlayer());
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.hanielcota.listeners;
+
+import com.github.hanielcota.services.ChunkWarmupService;
+import com.github.hanielcota.services.SpawnSafetyService;
+import com.github.hanielcota.services.WorldRegistry;
+import com.github.hanielcota.utils.SpawnConfigUtils;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Listener that keeps world-bound caches in sync with the worlds loaded on the server.
+ */
+@RequiredArgsConstructor
+public class WorldListener implements Listener {
+
+    private final SpawnConfigUtils spawnConfigUtils;
+    private final ChunkWarmupService chunkWarmupService;
+    private final SpawnSafetyService safetyService;
+    private final WorldRegistry worldRegistry;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        spawnConfigUtils.rebuildLocations();
+        chunkWarmupService.warm(event.getWorld());
+        worldRegistry.onWorldLoad(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        spawnConfigUtils.evictWorld(event.getWorld());
+        chunkWarmupService.release(event.getWorld());
+        safetyService.invalidate(event.getWorld());
+        worldRegistry.onWorldUnload(event.getWorld());
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.hanielcota.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed bucket boundaries.
+ * <p>
+ * Recording only increments {@link LongAdder} cells, so it never blocks and
+ * never allocates. Percentiles are estimated as the upper bound of the bucket
+ * containing the requested rank.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Inclusive upper bounds of each bucket, in milliseconds. Values above the
+     * last bound fall into an overflow bucket.
+     */
+    private static final double[] BOUNDS_MILLIS = {
+            1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000
+    };
+
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_MILLIS[i] * 1_000_000L);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single observation.
+     *
+     * @param nanos the observed latency in nanoseconds; negative values are ignored
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        int index = 0;
+        while (index < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[index]) {
+            index++;
+        }
+
+        buckets[index].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return the amount of recorded observations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of all observations in milliseconds
+     */
+    public double getSumMillis() {
+        return sumNanos.sum() / 1_000_000.0;
+    }
+
+    /**
+     * @return the bucket upper bounds in milliseconds, excluding the overflow bucket
+     */
+    public static double[] getBoundsMillis() {
+        return BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * @return cumulative counts per bucket; the last element is the total count
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param percentile the percentile in the range {@code (0, 100]}
+     * @return the upper bound, in milliseconds, of the bucket holding the percentile,
+     * {@code 0} when nothing was recorded or {@link Double#POSITIVE_INFINITY} for the overflow bucket
+     */
+    public double percentileMillis(double percentile) {
+        long[] cumulative = getCumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * (percentile / 100.0));
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            if (cumulative[i] >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.hanielcota.metrics;
+
+import java.io.IOException;
+
+/**
+ * Exports a snapshot of {@link TeleportMetrics} to an external system.
+ * <p>
+ * Exporters are invoked periodically from an asynchronous task and must not
+ * touch the Bukkit API.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    /**
+     * Exports the current state of the given metrics.
+     *
+     * @param metrics the metrics to export
+     * @throws IOException if the export target cannot be written
+     */
+    void export(TeleportMetrics metrics) throws IOException;
+}
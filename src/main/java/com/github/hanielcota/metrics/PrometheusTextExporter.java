@@ -0,0 +1,94 @@
+package com.github.hanielcota.metrics;
+
+import com.github.hanielcota.enums.TeleportResult;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exporter that writes metrics in the Prometheus text exposition format to a
+ * local file, e.g. for the node_exporter textfile collector.
+ * <p>
+ * The file is written to a temporary sibling first and then moved into place,
+ * so scrapers never read a partially written file.
+ */
+@RequiredArgsConstructor
+public class PrometheusTextExporter implements MetricsExporter {
+
+    private final Path target;
+
+    @Override
+    public void export(TeleportMetrics metrics) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, format(metrics), StandardCharsets.UTF_8);
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Formats the metrics in the Prometheus text exposition format.
+     *
+     * @param metrics the metrics to format
+     * @return the exposition text
+     */
+    public static String format(TeleportMetrics metrics) {
+        StringBuilder out = new StringBuilder(2048);
+
+        out.append("# HELP worldlink_teleports_total Teleports finished, by result.\n");
+        out.append("# TYPE worldlink_teleports_total counter\n");
+        for (TeleportResult result : TeleportResult.values()) {
+            out.append("worldlink_teleports_total{result=\"").append(result.name().toLowerCase(Locale.ROOT))
+                    .append("\"} ").append(metrics.getCount(result)).append('\n');
+        }
+
+        out.append("# HELP worldlink_teleports_by_world_total Teleports requested, by target world.\n");
+        out.append("# TYPE worldlink_teleports_by_world_total counter\n");
+        for (Map.Entry<String, Long> entry : metrics.getWorldCounts().entrySet()) {
+            out.append("worldlink_teleports_by_world_total{world=\"").append(escape(entry.getKey()))
+                    .append("\"} ").append(entry.getValue()).append('\n');
+        }
+
+        appendHistogram(out, "worldlink_teleport_latency_ms",
+                "Command dispatch to teleport completion.", metrics.getTeleportLatency());
+        appendHistogram(out, "worldlink_delivery_latency_ms",
+                "Teleport completion to result message delivery.", metrics.getDeliveryLatency());
+        appendHistogram(out, "worldlink_total_latency_ms",
+                "Command dispatch to result message delivery.", metrics.getTotalLatency());
+
+        return out.toString();
+    }
+
+    private static void appendHistogram(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+
+        double[] bounds = LatencyHistogram.getBoundsMillis();
+        long[] cumulative = histogram.getCumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            out.append(name).append("_bucket{le=\"").append(formatBound(bounds[i])).append("\"} ")
+                    .append(cumulative[i]).append('\n');
+        }
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative[cumulative.length - 1]).append('\n');
+        out.append(name).append("_sum ").append(String.format(Locale.ROOT, "%.3f", histogram.getSumMillis())).append('\n');
+        out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String formatBound(double bound) {
+        return bound == Math.rint(bound) ? Long.toString((long) bound) : Double.toString(bound);
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.hanielcota.metrics;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Low-overhead teleport counters and latency histograms.
+ * <p>
+ * Counters are kept per {@link TeleportResult}, in a {@link LongAdder} array
+ * indexed by ordinal, and per target world name, in a concurrent map whose
+ * adders are created once per world. Three latency histograms
+ * cover the teleport lifecycle:
+ * <ul>
+ *     <li>{@code teleport} - command dispatch to {@code teleportAsync} completion</li>
+ *     <li>{@code delivery} - teleport completion to result message on the main thread</li>
+ *     <li>{@code total} - command dispatch to result message</li>
+ * </ul>
+ * When disabled, {@link #now()} returns {@code 0} and {@link #record} returns
+ * immediately, so instrumented code neither reads the clock nor allocates.
+ */
+public final class TeleportMetrics {
+
+    private final Logger logger;
+
+    private final LongAdder[] resultCounts = newAdders(TeleportResult.values().length);
+    private final Map<String, LongAdder> worldCounts = new ConcurrentHashMap<>();
+
+    @Getter
+    private final LatencyHistogram teleportLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+
+    @Getter
+    private volatile boolean enabled;
+
+    public TeleportMetrics(Logger logger, boolean enabled) {
+        this.logger = logger;
+        this.enabled = enabled;
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Enables or disables collection. Already collected data is kept.
+     *
+     * @param enabled whether new observations are recorded
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the current {@link System#nanoTime()}, or {@code 0} when collection is disabled
+     */
+    public long now() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a finished teleport.
+     *
+     * @param targetWorld the requested world
+     * @param result      the teleport outcome
+     * @param dispatched  timestamp taken when the command was dispatched
+     * @param completed   timestamp taken when the teleport future completed
+     * @param delivered   timestamp taken after the result message was sent
+     */
+    public void record(TargetWorld targetWorld, TeleportResult result,
+                       long dispatched, long completed, long delivered) {
+        if (!enabled || dispatched == 0L) {
+            return;
+        }
+
+        resultCounts[result.ordinal()].increment();
+        worldCounts.computeIfAbsent(targetWorld.worldName(), name -> new LongAdder()).increment();
+
+        teleportLatency.record(completed - dispatched);
+        deliveryLatency.record(delivered - completed);
+        totalLatency.record(delivered - dispatched);
+    }
+
+    /**
+     * @param result the teleport outcome
+     * @return how many teleports finished with the given result
+     */
+    public long getCount(TeleportResult result) {
+        return resultCounts[result.ordinal()].sum();
+    }
+
+    /**
+     * @return how many teleports targeted each world, sorted by world name
+     */
+    public Map<String, Long> getWorldCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : worldCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Registers an exporter invoked by {@link #exportAll()}.
+     *
+     * @param exporter the exporter to add
+     */
+    public void registerExporter(MetricsExporter exporter) {
+        exporters.add(exporter);
+    }
+
+    /**
+     * Runs every registered exporter, logging failures without propagating them.
+     * Does nothing while collection is disabled.
+     */
+    public void exportAll() {
+        if (!enabled) {
+            return;
+        }
+
+        for (MetricsExporter exporter : exporters) {
+            try {
+                exporter.export(this);
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to export teleport metrics", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.hanielcota.models;
+
+import com.github.hanielcota.enums.TeleportResult;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aggregate outcome of a batch teleport.
+ *
+ * @param counts how many players finished with each {@link TeleportResult}
+ */
+public record BatchTeleportResult(Map<TeleportResult, Integer> counts) {
+
+    public BatchTeleportResult {
+        counts = counts.isEmpty()
+                ? Map.of()
+                : Collections.unmodifiableMap(new EnumMap<>(counts));
+    }
+
+    /**
+     * Creates a result where every player finished with the same outcome.
+     *
+     * @param result the shared outcome
+     * @param total  the amount of players
+     * @return the aggregate result
+     */
+    public static BatchTeleportResult uniform(TeleportResult result, int total) {
+        return total == 0 ? new BatchTeleportResult(Map.of()) : new BatchTeleportResult(Map.of(result, total));
+    }
+
+    /**
+     * @param result the outcome to count
+     * @return how many players finished with the given outcome
+     */
+    public int count(TeleportResult result) {
+        return counts.getOrDefault(result, 0);
+    }
+
+    /**
+     * @return the amount of players in the batch
+     */
+    public int total() {
+        int total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+}
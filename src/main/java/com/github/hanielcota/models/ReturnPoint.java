@@ -0,0 +1,38 @@
+package com.github.hanielcota.models;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Immutable position a player last occupied in a world.
+ *
+ * @param worldName the world name
+ * @param x         the x coordinate
+ * @param y         the y coordinate
+ * @param z         the z coordinate
+ * @param yaw       the yaw
+ * @param pitch     the pitch
+ */
+public record ReturnPoint(String worldName, double x, double y, double z, float yaw, float pitch) {
+
+    /**
+     * Creates a return point from a location.
+     *
+     * @param location the source location; its world must be set
+     * @return the return point
+     */
+    public static ReturnPoint of(Location location) {
+        return new ReturnPoint(location.getWorld().getName(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * Builds a new {@link Location} for this return point.
+     *
+     * @param world the world the location belongs to
+     * @return a new location instance
+     */
+    public Location toLocation(World world) {
+        return new Location(world, x, y, z, yaw, pitch);
+    }
+}
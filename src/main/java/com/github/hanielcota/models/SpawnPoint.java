@@ -0,0 +1,97 @@
+package com.github.hanielcota.models;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Locale;
+
+/**
+ * Immutable, world-independent spawn coordinates read from the configuration.
+ * <p>
+ * Instances are created once when the {@code spawns} section is loaded and are
+ * then shared by every teleport, so parsing never happens on the teleport path.
+ *
+ * @param x     the configured x coordinate
+ * @param y     the configured y coordinate
+ * @param z     the configured z coordinate
+ * @param yaw   the configured yaw
+ * @param pitch the configured pitch
+ */
+public record SpawnPoint(double x, double y, double z, float yaw, float pitch) {
+
+    /**
+     * Parses a legacy spawn value in the format {@code x,y,z[,yaw,pitch]}.
+     * If yaw/pitch are omitted they default to 0.
+     * <p>
+     * The value is scanned for commas in place, without a regex or an
+     * intermediate array; each field is still copied into a substring for
+     * {@link Double#parseDouble}. This only runs while the {@code spawns}
+     * section is loaded or migrated.
+     *
+     * @param raw the raw configuration value
+     * @return the parsed spawn point
+     * @throws IllegalArgumentException if the value is missing or malformed
+     */
+    public static SpawnPoint parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("Spawn value cannot be null or blank");
+        }
+
+        int first = raw.indexOf(',');
+        int second = first < 0 ? -1 : raw.indexOf(',', first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Spawn value must contain at least x,y,z: " + raw);
+        }
+        int third = raw.indexOf(',', second + 1);
+        int fourth = third < 0 ? -1 : raw.indexOf(',', third + 1);
+
+        double x = parseField(raw, 0, first);
+        double y = parseField(raw, first + 1, second);
+        double z = parseField(raw, second + 1, third < 0 ? raw.length() : third);
+
+        float yaw = 0f;
+        float pitch = 0f;
+
+        if (fourth >= 0) {
+            int fifth = raw.indexOf(',', fourth + 1);
+            yaw = (float) parseField(raw, third + 1, fourth);
+            pitch = (float) parseField(raw, fourth + 1, fifth < 0 ? raw.length() : fifth);
+        }
+
+        return new SpawnPoint(x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Creates a spawn point from a player's current location.
+     *
+     * @param location the source location
+     * @return a spawn point with the same coordinates and rotation
+     */
+    public static SpawnPoint of(Location location) {
+        return new SpawnPoint(location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * Formats this spawn point for display, in the legacy configuration format.
+     *
+     * @return the value in the format {@code x,y,z,yaw,pitch}
+     */
+    public String format() {
+        return String.format(Locale.ROOT, "%.6f,%.6f,%.6f,%.2f,%.2f", x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Builds a new {@link Location} for this spawn point in the given world.
+     * The x and z coordinates are centered on the block.
+     *
+     * @param world the world the location belongs to
+     * @return a new location instance
+     */
+    public Location toLocation(World world) {
+        return new Location(world, x + 0.5, y, z + 0.5, yaw, pitch);
+    }
+
+    private static double parseField(String raw, int start, int end) {
+        return Double.parseDouble(raw.substring(start, end));
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.hanielcota.models;
+
+import com.github.hanielcota.enums.SpawnStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The spawn points of a world, as stored under {@code spawns}.
+ * <p>
+ * Records are keyed by world UUID, so a world keeps its spawn when it is
+ * renamed. Entries written in the legacy {@code x,y,z,yaw,pitch} format only
+ * know the world name; they have no UUID until they are migrated.
+ * <p>
+ * A world has at least one point. The first one is its primary spawn, set by
+ * {@code /setworldspawn}; the others are added to spread large crowds, and the
+ * {@link SpawnStrategy} decides which point each teleport uses.
+ *
+ * @param worldId   the world UUID, or {@code null} for a legacy entry not migrated yet
+ * @param worldName the name of the world when the record was written
+ * @param points    the spawn points, primary first
+ * @param strategy  how teleports pick one of the points
+ */
+public record SpawnRecord(UUID worldId, String worldName, List<WeightedPoint> points, SpawnStrategy strategy) {
+
+    public SpawnRecord {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("A spawn record needs at least one point");
+        }
+        points = List.copyOf(points);
+    }
+
+    /**
+     * Creates a record holding a single spawn point.
+     *
+     * @param worldId   the world UUID, or {@code null} for a legacy entry
+     * @param worldName the world name
+     * @param point     the spawn point
+     * @return the record
+     */
+    public static SpawnRecord of(UUID worldId, String worldName, SpawnPoint point) {
+        return new SpawnRecord(worldId, worldName, List.of(new WeightedPoint(point, 1.0)), SpawnStrategy.ROUND_ROBIN);
+    }
+
+    /**
+     * @return the primary spawn point
+     */
+    public SpawnPoint point() {
+        return points.get(0).point();
+    }
+
+    /**
+     * @return {@code true} if this record was read from a legacy string entry
+     */
+    public boolean isLegacy() {
+        return worldId == null;
+    }
+
+    /**
+     * @param worldId   the world UUID
+     * @param worldName the current name of the world
+     * @return a copy of this record bound to the given world
+     */
+    public SpawnRecord withWorld(UUID worldId, String worldName) {
+        return new SpawnRecord(worldId, worldName, points, strategy);
+    }
+
+    /**
+     * @param point the new primary spawn point
+     * @return a copy of this record with the primary point moved, keeping its weight
+     */
+    public SpawnRecord withPrimary(SpawnPoint point) {
+        List<WeightedPoint> updated = new ArrayList<>(points);
+        updated.set(0, new WeightedPoint(point, points.get(0).weight()));
+        return new SpawnRecord(worldId, worldName, updated, strategy);
+    }
+
+    /**
+     * @param point the point to append
+     * @return a copy of this record with one more point
+     */
+    public SpawnRecord withPoint(WeightedPoint point) {
+        List<WeightedPoint> updated = new ArrayList<>(points);
+        updated.add(point);
+        return new SpawnRecord(worldId, worldName, updated, strategy);
+    }
+
+    /**
+     * @param index the index of the point to remove; the remaining points shift down
+     * @return a copy of this record without the point
+     */
+    public SpawnRecord withoutPoint(int index) {
+        List<WeightedPoint> updated = new ArrayList<>(points);
+        updated.remove(index);
+        return new SpawnRecord(worldId, worldName, updated, strategy);
+    }
+
+    /**
+     * @param strategy the new selection strategy
+     * @return a copy of this record using it
+     */
+    public SpawnRecord withStrategy(SpawnStrategy strategy) {
+        return new SpawnRecord(worldId, worldName, points, strategy);
+    }
+
+    /**
+     * A spawn point with its share of the teleports.
+     *
+     * @param point  the spawn point
+     * @param weight the relative weight; must be positive
+     */
+    public record WeightedPoint(SpawnPoint point, double weight) {
+
+        public WeightedPoint {
+            if (!(weight > 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Spawn point weight must be positive: " + weight);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.hanielcota.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable description of a world players can teleport to.
+ *
+ * @param worldName   the actual world folder/name used by the server
+ * @param displayName the name shown to players
+ * @param aliases     additional names accepted by commands
+ * @param permission  permission required to teleport there, or an empty string for none
+ * @param options     free-form per-world options from the {@code options} section
+ */
+public record TargetWorld(String worldName, String displayName, List<String> aliases,
+                          String permission, Map<String, Object> options) {
+
+    public TargetWorld {
+        aliases = List.copyOf(aliases);
+        options = Map.copyOf(options);
+        permission = permission == null ? "" : permission;
+    }
+
+    /**
+     * Creates an entry without aliases, permission or options.
+     *
+     * @param worldName the world name
+     * @return the new entry
+     */
+    public static TargetWorld of(String worldName) {
+        return new TargetWorld(worldName, worldName, List.of(), "", Map.of());
+    }
+
+    /**
+     * @return whether a permission is required to teleport to this world
+     */
+    public boolean requiresPermission() {
+        return !permission.isEmpty();
+    }
+
+    /**
+     * Reads a per-world option.
+     *
+     * @param key the option key
+     * @param def the value returned when the option is missing
+     * @return the configured option or {@code def}
+     */
+    public Object getOption(String key, Object def) {
+        return options.getOrDefault(key, def);
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.hanielcota.proxy;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * {@link ProxyTransport} built on the {@code BungeeCord} plugin messaging channel.
+ * <p>
+ * Payloads travel inside {@code Forward} messages on the {@code WorldLink}
+ * sub-channel and players are moved with {@code Connect}. Both BungeeCord and
+ * Velocity (with {@code bungee-plugin-message-channel} enabled) support these.
+ * <p>
+ * Plugin messages always need a connected player to travel through, and the
+ * proxy drops forwarded messages for backends that have no players online.
+ */
+@RequiredArgsConstructor
+public class PluginMessageTransport implements ProxyTransport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUB_CHANNEL = "WorldLink";
+
+    private final JavaPlugin plugin;
+
+    private volatile Consumer<byte[]> receiver;
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public boolean send(Player carrier, String server, byte[] payload) {
+        if (carrier == null || !carrier.isOnline()) {
+            return false;
+        }
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("Forward");
+        out.writeUTF(server);
+        out.writeUTF(SUB_CHANNEL);
+        out.writeShort(payload.length);
+        out.write(payload);
+
+        carrier.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+        return true;
+    }
+
+    @Override
+    public void connect(Player player, String server) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("Connect");
+        out.writeUTF(server);
+
+        player.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL.equals(channel)) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            ByteArrayDataInput in = ByteStreams.newDataInput(message);
+            if (!SUB_CHANNEL.equals(in.readUTF())) {
+                return;
+            }
+
+            payload = new byte[in.readShort() & 0xFFFF];
+            in.readFully(payload);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Received malformed plugin message", e);
+            return;
+        }
+
+        Consumer<byte[]> current = receiver;
+        if (current != null) {
+            current.accept(payload);
+        }
+    }
+
+    @Override
+    public void close() {
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+        receiver = null;
+    }
+}
@@ -0,0 +1,477 @@
+package com.github.hanielcota.proxy;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigUtils;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Routes players to worlds hosted on other backends behind the proxy.
+ * <p>
+ * Every backend keeps a {@link RoutingTable} seeded from {@code routing.servers}
+ * and refreshed incrementally: on startup a backend announces its full world
+ * list and asks the others for theirs, and afterwards only single world
+ * additions and removals are broadcast. Lookups read the cached table and never
+ * query the network.
+ * <p>
+ * Transferring a player sends a pending-teleport message to the destination
+ * backend, then connects the player there. The destination stores the pending
+ * teleport and applies it when the player joins, unless it expired first;
+ * pending teleports of players who never arrive are swept periodically.
+ * <p>
+ * The proxy drops forwarded messages for backends without online players, and
+ * a message may also arrive after the player joined. So a backend that has no
+ * pending teleport for a joining player asks the other backends for it, using
+ * that player to carry the request, and the origin sends its signed message
+ * again; a message arriving for a player already online is applied at once.
+ * This still fails if the origin backend emptied in the meantime, in which
+ * case the player stays at the destination's default spawn.
+ * <p>
+ * Plugin messages can be forged by anyone able to send on the channel, so
+ * pending-teleport messages are signed with an HMAC-SHA256 over their fields
+ * and a {@code routing.secret} shared by all backends. Unsigned, badly signed
+ * and stale messages are dropped, and the nonces of accepted ones are kept
+ * until they would be stale, so a captured message cannot be replayed.
+ * Without a secret no transfer is sent or accepted.
+ */
+public class ProxyRouter {
+
+    private static final String CONFIG_PATH = "routing";
+
+    private static final String TYPE_ROUTES = "ROUTES";
+    private static final String TYPE_ROUTES_REQUEST = "ROUTES_REQUEST";
+    private static final String TYPE_ROUTE_ADD = "ROUTE_ADD";
+    private static final String TYPE_ROUTE_REMOVE = "ROUTE_REMOVE";
+    private static final String TYPE_TRANSFER = "TRANSFER";
+    private static final String TYPE_TRANSFER_REQUEST = "TRANSFER_REQUEST";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final long SWEEP_INTERVAL_TICKS = 20L * 10;
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
+    private final ProxyTransport transport;
+    private final Consumer<Set<String>> routesListener;
+    private final BiConsumer<Player, String> arrivalListener;
+
+    private final Map<UUID, PendingTeleport> pendingTeleports = new ConcurrentHashMap<>();
+    private final Map<UUID, IssuedTransfer> issuedTransfers = new ConcurrentHashMap<>();
+    private final Map<Long, Long> seenNonces = new ConcurrentHashMap<>();
+
+    private volatile RoutingTable table = RoutingTable.empty();
+    private volatile boolean announcePending;
+    private TaskScheduler.Task sweepTask;
+
+    /**
+     * @param plugin         the owning plugin
+     * @param scheduler      the scheduler used to reach the carrier player's thread
+     * @param config         the configuration holding the {@code routing} section
+     * @param transport      the transport used to reach the proxy and other backends
+     * @param routesListener notified with the remote world names whenever the table changes
+     * @param arrivalListener called on the player's thread with a transferred player and the name of
+     *                        the world they asked for, once they joined and their teleport arrived
+     */
+    public ProxyRouter(JavaPlugin plugin, TaskScheduler scheduler, ConfigUtils config,
+                       ProxyTransport transport, Consumer<Set<String>> routesListener,
+                       BiConsumer<Player, String> arrivalListener) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.transport = transport;
+        this.routesListener = routesListener;
+        this.arrivalListener = arrivalListener;
+    }
+
+    /**
+     * @return whether cross-server routing is enabled in the configuration
+     */
+    public boolean isEnabled() {
+        return config.getBoolean(CONFIG_PATH + ".enabled");
+    }
+
+    /**
+     * @return the name of this backend on the proxy
+     */
+    public String getServerName() {
+        return config.getString(CONFIG_PATH + ".server-name", "");
+    }
+
+    /**
+     * Loads the static routes, starts the transport and announces the local worlds.
+     */
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        RoutingTable seeded = RoutingTable.empty();
+        ConfigurationSection servers = config.getConfig().getConfigurationSection(CONFIG_PATH + ".servers");
+        if (servers != null) {
+            for (String server : servers.getKeys(false)) {
+                if (!server.equals(getServerName())) {
+                    seeded = seeded.withServer(server, servers.getStringList(server));
+                }
+            }
+        }
+        publish(seeded);
+
+        if (getSecret().isEmpty()) {
+            plugin.getLogger().warning("routing.secret is not set; cross-server teleports are disabled.");
+        }
+
+        transport.start(this::receive);
+        sweepTask = scheduler.runAsyncTimer(this::sweepExpired, SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+        announcePending = true;
+        announce(anyPlayer());
+    }
+
+    /**
+     * Stops the transport and forgets every pending teleport.
+     */
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        transport.close();
+        pendingTeleports.clear();
+        issuedTransfers.clear();
+        seenNonces.clear();
+    }
+
+    /**
+     * Finds the backend hosting a world that is not loaded locally.
+     *
+     * @param worldName the world name
+     * @return the route or {@code null} when the world is unknown or routing is disabled
+     */
+    public RoutingTable.Route findRoute(String worldName) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        RoutingTable.Route route = table.get(worldName);
+        if (route == null || route.server().equals(getServerName())) {
+            return null;
+        }
+        return route;
+    }
+
+    /**
+     * Sends a player to the backend hosting the given route.
+     *
+     * @param player the player to transfer
+     * @param route  the route of the destination world
+     * @return a future completing with TRANSFERRED, or GENERIC_FAILURE when no
+     * secret is configured or the pending-teleport message could not be sent
+     */
+    public CompletableFuture<TeleportResult> transfer(Player player, RoutingTable.Route route) {
+        String secret = getSecret();
+        if (secret.isEmpty()) {
+            return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
+        }
+
+        UUID uuid = player.getUniqueId();
+        long nonce = ThreadLocalRandom.current().nextLong();
+        long issuedAt = System.currentTimeMillis();
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(TYPE_TRANSFER);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeUTF(route.worldName());
+        out.writeLong(nonce);
+        out.writeLong(issuedAt);
+        byte[] signature = sign(secret, uuid, route.worldName(), nonce, issuedAt);
+        out.writeShort(signature.length);
+        out.write(signature);
+
+        byte[] payload = out.toByteArray();
+        if (!transport.send(player, route.server(), payload)) {
+            return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
+        }
+
+        // Kept so the destination can ask for it again if it was dropped or arrives late.
+        issuedTransfers.put(uuid, new IssuedTransfer(route.server(), payload, System.nanoTime() + transferTimeoutNanos()));
+        transport.connect(player, route.server());
+        return CompletableFuture.completedFuture(TeleportResult.TRANSFERRED);
+    }
+
+    /**
+     * Called when a player joins. One tick later, once the join finished:
+     * <ul>
+     *   <li>announces the full world list if the startup announcement or a
+     *   later route change could not be sent earlier because no player was
+     *   online to carry it;</li>
+     *   <li>hands the player's pending teleport to the arrival listener or,
+     *   if none arrived, asks the other backends to send it again.</li>
+     * </ul>
+     *
+     * @param player the joining player
+     */
+    public void onPlayerJoin(Player player) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        scheduler.runForEntityLater(player, () -> {
+            announce(player);
+
+            PendingTeleport pending = pendingTeleports.remove(player.getUniqueId());
+            if (pending != null && System.nanoTime() - pending.expiresAt() <= 0) {
+                arrivalListener.accept(player, pending.worldName());
+            } else if (!getSecret().isEmpty()) {
+                requestTransfer(player);
+            }
+        }, 1L);
+    }
+
+    private void requestTransfer(Player player) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(TYPE_TRANSFER_REQUEST);
+        out.writeLong(player.getUniqueId().getMostSignificantBits());
+        out.writeLong(player.getUniqueId().getLeastSignificantBits());
+        out.writeUTF(getServerName());
+        transport.send(player, ProxyTransport.ALL_SERVERS, out.toByteArray());
+    }
+
+    /**
+     * Broadcasts that a world was loaded on this backend.
+     *
+     * @param world the loaded world
+     */
+    public void onWorldLoad(World world) {
+        broadcastRouteChange(TYPE_ROUTE_ADD, world.getName());
+    }
+
+    /**
+     * Broadcasts that a world was unloaded from this backend.
+     *
+     * @param world the unloaded world
+     */
+    public void onWorldUnload(World world) {
+        broadcastRouteChange(TYPE_ROUTE_REMOVE, world.getName());
+    }
+
+    private void broadcastRouteChange(String type, String worldName) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(type);
+        out.writeUTF(getServerName());
+        out.writeUTF(worldName);
+        if (!transport.send(anyPlayer(), ProxyTransport.ALL_SERVERS, out.toByteArray())) {
+            // The full list sent on the next join replaces this backend's routes everywhere.
+            announcePending = true;
+        }
+    }
+
+    private void announce(Player carrier) {
+        if (carrier == null || !announcePending) {
+            return;
+        }
+
+        if (transport.send(carrier, ProxyTransport.ALL_SERVERS, routesPayload())) {
+            ByteArrayDataOutput request = ByteStreams.newDataOutput();
+            request.writeUTF(TYPE_ROUTES_REQUEST);
+            request.writeUTF(getServerName());
+            transport.send(carrier, ProxyTransport.ALL_SERVERS, request.toByteArray());
+            announcePending = false;
+        }
+    }
+
+    private byte[] routesPayload() {
+        List<World> worlds = Bukkit.getWorlds();
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(TYPE_ROUTES);
+        out.writeUTF(getServerName());
+        out.writeInt(worlds.size());
+        for (World world : worlds) {
+            out.writeUTF(world.getName());
+        }
+        return out.toByteArray();
+    }
+
+    private void receive(byte[] payload) {
+        try {
+            ByteArrayDataInput in = ByteStreams.newDataInput(payload);
+            switch (in.readUTF()) {
+                case TYPE_ROUTES -> {
+                    String server = in.readUTF();
+                    int count = in.readInt();
+                    // Every name takes at least its two length bytes.
+                    if (count < 0 || count > payload.length / 2) {
+                        throw new IllegalArgumentException("Invalid world count " + count);
+                    }
+                    List<String> worlds = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        worlds.add(in.readUTF());
+                    }
+                    if (!server.equals(getServerName())) {
+                        publish(table.withServer(server, worlds));
+                    }
+                }
+                case TYPE_ROUTES_REQUEST -> {
+                    String server = in.readUTF();
+                    if (!server.equals(getServerName())) {
+                        transport.send(anyPlayer(), server, routesPayload());
+                    }
+                }
+                case TYPE_ROUTE_ADD -> {
+                    String server = in.readUTF();
+                    String world = in.readUTF();
+                    if (!server.equals(getServerName())) {
+                        publish(table.withRoute(server, world));
+                    }
+                }
+                case TYPE_ROUTE_REMOVE -> {
+                    String server = in.readUTF();
+                    publish(table.withoutRoute(server, in.readUTF()));
+                }
+                case TYPE_TRANSFER -> {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    String world = in.readUTF();
+                    long nonce = in.readLong();
+                    long issuedAt = in.readLong();
+                    byte[] signature = new byte[in.readShort() & 0xFFFF];
+                    in.readFully(signature);
+
+                    String secret = getSecret();
+                    long timeoutSeconds = TimeUnit.NANOSECONDS.toSeconds(transferTimeoutNanos());
+                    long age = System.currentTimeMillis() - issuedAt;
+                    if (secret.isEmpty()
+                            || !MessageDigest.isEqual(signature, sign(secret, uuid, world, nonce, issuedAt))) {
+                        plugin.getLogger().warning("Dropped unauthenticated transfer for " + uuid + " to world '" + world + "'");
+                    } else if (age >= 0 && age <= TimeUnit.SECONDS.toMillis(timeoutSeconds)) {
+                        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+                        if (seenNonces.putIfAbsent(nonce, expiresAt) != null) {
+                            plugin.getLogger().warning("Dropped replayed transfer for " + uuid + " to world '" + world + "'");
+                        } else {
+                            accept(uuid, world, expiresAt);
+                        }
+                    }
+                }
+                case TYPE_TRANSFER_REQUEST -> {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    String server = in.readUTF();
+                    IssuedTransfer issued = issuedTransfers.get(uuid);
+                    // Only ever re-sent to the backend it was signed for, which checks it as usual.
+                    if (issued != null && issued.server().equals(server)
+                            && System.nanoTime() - issued.expiresAt() <= 0) {
+                        transport.send(anyPlayer(), server, issued.payload());
+                    }
+                }
+                default -> {
+                    // Unknown message from a newer version; ignore it.
+                }
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Received malformed routing message", e);
+        }
+    }
+
+    /**
+     * Applies an accepted transfer: at once if the player already joined,
+     * otherwise when they do.
+     */
+    private void accept(UUID uuid, String worldName, long expiresAt) {
+        Player online = Bukkit.getPlayer(uuid);
+        if (online == null) {
+            pendingTeleports.put(uuid, new PendingTeleport(worldName, expiresAt));
+            return;
+        }
+
+        // Let a join in progress finish before moving the player.
+        scheduler.runForEntityLater(online, () -> arrivalListener.accept(online, worldName), 1L);
+    }
+
+    /**
+     * Forgets the pending teleports of players who did not join in time, the
+     * transfers sent from here that can no longer be requested, and the
+     * nonces of transfers that are now stale anyway.
+     */
+    private void sweepExpired() {
+        long now = System.nanoTime();
+        pendingTeleports.values().removeIf(pending -> now - pending.expiresAt() > 0);
+        issuedTransfers.values().removeIf(issued -> now - issued.expiresAt() > 0);
+        seenNonces.values().removeIf(expiresAt -> now - expiresAt > 0);
+    }
+
+    private long transferTimeoutNanos() {
+        return TimeUnit.SECONDS.toNanos(Math.max(1, config.getInt(CONFIG_PATH + ".transfer-timeout-seconds", 30)));
+    }
+
+    private String getSecret() {
+        return config.getString(CONFIG_PATH + ".secret", "");
+    }
+
+    private static byte[] sign(String secret, UUID uuid, String worldName, long nonce, long issuedAt) {
+        ByteArrayDataOutput data = ByteStreams.newDataOutput();
+        data.writeLong(uuid.getMostSignificantBits());
+        data.writeLong(uuid.getLeastSignificantBits());
+        data.writeUTF(worldName);
+        data.writeLong(nonce);
+        data.writeLong(issuedAt);
+
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM));
+            return mac.doFinal(data.toByteArray());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private void publish(RoutingTable updated) {
+        if (updated == table) {
+            return;
+        }
+
+        this.table = updated;
+        routesListener.accept(updated.worldNames());
+    }
+
+    private static Player anyPlayer() {
+        Collection<? extends Player> players = Bukkit.getOnlinePlayers();
+        return players.isEmpty() ? null : players.iterator().next();
+    }
+
+    private record PendingTeleport(String worldName, long expiresAt) {
+    }
+
+    private record IssuedTransfer(String server, byte[] payload, long expiresAt) {
+    }
+}
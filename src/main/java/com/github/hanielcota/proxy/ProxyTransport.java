@@ -0,0 +1,50 @@
+package com.github.hanielcota.proxy;
+
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport used by {@link ProxyRouter} to talk to the proxy and to other backends.
+ * <p>
+ * Implementations deliver opaque payloads between backends and move players to
+ * another backend. {@link PluginMessageTransport} uses the BungeeCord plugin
+ * messaging channel understood by BungeeCord and Velocity.
+ */
+public interface ProxyTransport {
+
+    /**
+     * Target name that delivers a payload to every other backend.
+     */
+    String ALL_SERVERS = "ALL";
+
+    /**
+     * Starts the transport.
+     *
+     * @param receiver callback invoked with every payload addressed to this backend
+     */
+    void start(Consumer<byte[]> receiver);
+
+    /**
+     * Sends a payload to another backend.
+     *
+     * @param carrier a player connected to this backend, required by plugin messaging
+     * @param server  the target backend name or {@link #ALL_SERVERS}
+     * @param payload the payload to deliver
+     * @return whether the payload was handed to the transport
+     */
+    boolean send(Player carrier, String server, byte[] payload);
+
+    /**
+     * Moves a player to another backend.
+     *
+     * @param player the player to move
+     * @param server the target backend name
+     */
+    void connect(Player player, String server);
+
+    /**
+     * Stops the transport and releases its resources.
+     */
+    void close();
+}
@@ -0,0 +1,112 @@
+package com.github.hanielcota.proxy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable mapping of world names to the backend hosting them.
+ * <p>
+ * World names are normalized to lower case. Updates return a new table, so a
+ * router can publish changes with a single volatile write and readers never
+ * need to lock.
+ */
+public final class RoutingTable {
+
+    private static final RoutingTable EMPTY = new RoutingTable(Map.of());
+
+    private final Map<String, Route> routes;
+
+    private RoutingTable(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * @return a table without routes
+     */
+    public static RoutingTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param worldName the world name, in any case
+     * @return the route of the world or {@code null} when unknown
+     */
+    public Route get(String worldName) {
+        return routes.get(normalize(worldName));
+    }
+
+    /**
+     * @return the world names of every route, as originally announced
+     */
+    public Set<String> worldNames() {
+        Set<String> names = new TreeSet<>();
+        for (Route route : routes.values()) {
+            names.add(route.worldName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns a table where the given server hosts exactly the given worlds.
+     *
+     * @param server the backend name
+     * @param worlds every world currently hosted by the backend
+     * @return the updated table
+     */
+    public RoutingTable withServer(String server, Collection<String> worlds) {
+        Map<String, Route> updated = new HashMap<>(routes);
+        updated.values().removeIf(route -> route.server().equals(server));
+        for (String world : worlds) {
+            updated.put(normalize(world), new Route(world, server));
+        }
+        return new RoutingTable(Map.copyOf(updated));
+    }
+
+    /**
+     * Returns a table with a single route added or replaced.
+     *
+     * @param server    the backend name
+     * @param worldName the world now hosted by the backend
+     * @return the updated table
+     */
+    public RoutingTable withRoute(String server, String worldName) {
+        Map<String, Route> updated = new HashMap<>(routes);
+        updated.put(normalize(worldName), new Route(worldName, server));
+        return new RoutingTable(Map.copyOf(updated));
+    }
+
+    /**
+     * Returns a table without the route of a world, if it pointed to the given server.
+     *
+     * @param server    the backend name
+     * @param worldName the world no longer hosted by the backend
+     * @return the updated table
+     */
+    public RoutingTable withoutRoute(String server, String worldName) {
+        Route route = routes.get(normalize(worldName));
+        if (route == null || !route.server().equals(server)) {
+            return this;
+        }
+
+        Map<String, Route> updated = new HashMap<>(routes);
+        updated.remove(normalize(worldName));
+        return new RoutingTable(Map.copyOf(updated));
+    }
+
+    private static String normalize(String worldName) {
+        return worldName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A world hosted by a backend.
+     *
+     * @param worldName the world name
+     * @param server    the backend name on the proxy
+     */
+    public record Route(String worldName, String server) {
+    }
+}
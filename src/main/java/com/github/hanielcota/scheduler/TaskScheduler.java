@@ -0,0 +1,165 @@
+package com.github.hanielcota.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs plugin tasks on the thread that owns the state they touch.
+ * <p>
+ * On Paper every region is ticked by the single main thread, so entity, chunk
+ * and global tasks all end up there ({@link PaperTaskScheduler}). On Folia each
+ * region has its own thread: entity tasks follow the entity, chunk tasks run on
+ * the region owning the chunk and global tasks on the global region
+ * ({@link FoliaTaskScheduler}), so teleports in different regions run in parallel.
+ * <p>
+ * The {@code run*} methods execute the task immediately when the calling thread
+ * already owns the target, and on its next tick otherwise. Delayed and
+ * repeating variants always wait at least one tick.
+ */
+public interface TaskScheduler {
+
+    /**
+     * Creates the scheduler matching the running server.
+     *
+     * @param plugin the owning plugin
+     * @return a Folia scheduler when running on Folia, a Paper scheduler otherwise
+     */
+    static TaskScheduler create(JavaPlugin plugin) {
+        return isFolia() ? new FoliaTaskScheduler(plugin) : new PaperTaskScheduler(plugin);
+    }
+
+    /**
+     * @return whether the server uses Folia's regionized threading
+     */
+    static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs a task on the global region, which owns server-wide state such as
+     * the plugin's own repeating tasks.
+     *
+     * @param task the task
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Runs a task repeatedly on the global region.
+     *
+     * @param task        the task
+     * @param delayTicks  ticks before the first run, at least 1
+     * @param periodTicks ticks between runs, at least 1
+     * @return a handle that cancels the task
+     */
+    Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the thread owning an entity.
+     *
+     * @param entity  the entity
+     * @param task    the task
+     * @param retired run instead of {@code task} when the entity was removed before it could run; may be
+     *                {@code null}, in which case the task is dropped
+     */
+    void runForEntity(Entity entity, Runnable task, Runnable retired);
+
+    /**
+     * Runs a task on the thread owning an entity after a delay, dropping it if
+     * the entity is gone by then.
+     *
+     * @param entity     the entity
+     * @param task       the task
+     * @param delayTicks ticks to wait, at least 1
+     */
+    void runForEntityLater(Entity entity, Runnable task, long delayTicks);
+
+    /**
+     * Runs a task on the thread owning a chunk.
+     *
+     * @param world  the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     * @param task   the task
+     */
+    void runAtChunk(World world, int chunkX, int chunkZ, Runnable task);
+
+    /**
+     * Runs a task off the server threads.
+     *
+     * @param task the task
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Runs a task repeatedly off the server threads.
+     *
+     * @param task        the task
+     * @param delayTicks  ticks before the first run
+     * @param periodTicks ticks between runs, at least 1
+     * @return a handle that cancels the task
+     */
+    Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the thread owning an entity, dropping it if the entity is gone.
+     *
+     * @param entity the entity
+     * @param task   the task
+     */
+    default void runForEntity(Entity entity, Runnable task) {
+        runForEntity(entity, task, null);
+    }
+
+    /**
+     * Runs a task where a command sender can be safely messaged: the entity's
+     * thread for players and other entities, the global region for the console.
+     *
+     * @param sender the command sender
+     * @param task   the task
+     */
+    default void runFor(CommandSender sender, Runnable task) {
+        if (sender instanceof Entity entity) {
+            runForEntity(entity, task);
+        } else {
+            runGlobal(task);
+        }
+    }
+
+    /**
+     * @param entity the entity
+     * @return an executor running tasks on the thread owning the entity
+     */
+    default Executor entityExecutor(Entity entity) {
+        return task -> runForEntity(entity, task);
+    }
+
+    /**
+     * @param world  the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     * @return an executor running tasks on the thread owning the chunk
+     */
+    default Executor chunkExecutor(World world, int chunkX, int chunkZ) {
+        return task -> runAtChunk(world, chunkX, chunkZ, task);
+    }
+
+    /**
+     * Handle of a repeating task.
+     */
+    interface Task {
+
+        /**
+         * Stops the task. Has no effect if it was already cancelled.
+         */
+        void cancel();
+    }
+}
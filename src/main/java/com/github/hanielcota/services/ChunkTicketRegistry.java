@@ -0,0 +1,110 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.scheduler.TaskScheduler;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single owner of the plugin's chunk tickets.
+ * <p>
+ * Bukkit keeps at most one ticket per plugin and chunk, so services that hold
+ * the same chunk for different reasons (the spawn warm-up of
+ * {@link ChunkWarmupService} and the batches of {@link TeleportService}) would
+ * remove each other's tickets. They go through this registry instead, which
+ * counts the holders of every chunk and keeps the ticket while at least one
+ * remains.
+ * <p>
+ * Tickets are added and removed on the thread owning each chunk, through the
+ * {@link TaskScheduler}, from the holder count read on that thread, so the last
+ * update of a chunk always wins.
+ */
+public class ChunkTicketRegistry {
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+
+    private final Map<UUID, Map<Long, Integer>> holders = new HashMap<>();
+
+    public ChunkTicketRegistry(JavaPlugin plugin, TaskScheduler scheduler) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Adds a holder to a chunk, loading it asynchronously and ticketing it.
+     * Every call must be paired with a {@link #release} once the chunk is no
+     * longer needed, whether the load succeeded or not.
+     *
+     * @param world  the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     * @return a future completed once the chunk is loaded and ticketed
+     */
+    public CompletableFuture<Void> acquire(World world, int chunkX, int chunkZ) {
+        synchronized (this) {
+            holders.computeIfAbsent(world.getUID(), id -> new HashMap<>())
+                    .merge(Chunk.getChunkKey(chunkX, chunkZ), 1, Integer::sum);
+        }
+
+        // Completes on the thread owning the chunk.
+        return world.getChunkAtAsync(chunkX, chunkZ).thenAccept(chunk -> update(world, chunkX, chunkZ));
+    }
+
+    /**
+     * Removes a holder from a chunk; the ticket goes away with the last one.
+     *
+     * @param world  the world
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     */
+    public void release(World world, int chunkX, int chunkZ) {
+        synchronized (this) {
+            Map<Long, Integer> chunks = holders.get(world.getUID());
+            long key = Chunk.getChunkKey(chunkX, chunkZ);
+            if (chunks == null || !chunks.containsKey(key)) {
+                return;
+            }
+
+            if (chunks.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null) != null) {
+                return;
+            }
+            if (chunks.isEmpty()) {
+                holders.remove(world.getUID());
+            }
+        }
+
+        scheduler.runAtChunk(world, chunkX, chunkZ, () -> update(world, chunkX, chunkZ));
+    }
+
+    /**
+     * Forgets every holder. Called when the plugin is disabled; Bukkit removes
+     * the tickets of a disabled plugin itself.
+     */
+    public synchronized void clear() {
+        holders.clear();
+    }
+
+    private synchronized boolean isHeld(World world, int chunkX, int chunkZ) {
+        Map<Long, Integer> chunks = holders.get(world.getUID());
+        return chunks != null && chunks.containsKey(Chunk.getChunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Brings the ticket of a chunk in line with its holders. Must run on the
+     * thread owning the chunk. A held chunk that is not loaded yet is left to
+     * the pending {@link #acquire}, so this never loads chunks synchronously.
+     */
+    private void update(World world, int chunkX, int chunkZ) {
+        if (!isHeld(world, chunkX, chunkZ)) {
+            world.removePluginChunkTicket(chunkX, chunkZ, plugin);
+        } else if (world.isChunkLoaded(chunkX, chunkZ)) {
+            world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+        }
+    }
+}
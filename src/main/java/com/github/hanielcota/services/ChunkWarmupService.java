@@ -0,0 +1,182 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.SpawnConfigUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Service that keeps the chunks around configured spawn points loaded.
+ * <p>
+ * When enabled under {@code chunk-warmup}, a square of chunks with a per-world
+ * radius around each configured spawn point is loaded asynchronously through
+ * {@link World#getChunkAtAsync(int, int)} and held with a plugin chunk ticket,
+ * so {@code teleportAsync} never has to load or generate them on demand.
+ * The total amount of ticketed chunks is capped by {@code chunk-warmup.max-chunks}.
+ * <p>
+ * Tickets are held through the {@link ChunkTicketRegistry}, so chunks also held
+ * by a running teleport batch keep their ticket until both let go.
+ */
+public class ChunkWarmupService {
+
+    private static final String CONFIG_PATH = "chunk-warmup";
+
+    private final JavaPlugin plugin;
+    private final ChunkTicketRegistry chunkTickets;
+    private final ConfigUtils config;
+    private final SpawnConfigUtils spawnConfigUtils;
+
+    private final Map<UUID, Set<Long>> ticketed = new ConcurrentHashMap<>();
+
+    public ChunkWarmupService(JavaPlugin plugin, ChunkTicketRegistry chunkTickets, ConfigUtils config, SpawnConfigUtils spawnConfigUtils) {
+        this.plugin = plugin;
+        this.chunkTickets = chunkTickets;
+        this.config = config;
+        this.spawnConfigUtils = spawnConfigUtils;
+    }
+
+    /**
+     * @return whether spawn chunk warm-up is enabled in the configuration
+     */
+    public boolean isEnabled() {
+        return config.getBoolean(CONFIG_PATH + ".enabled");
+    }
+
+    /**
+     * Warms the spawn area of every loaded world that has a configured spawn
+     * or an explicit warm-up radius.
+     */
+    public void warmAll() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (World world : Bukkit.getWorlds()) {
+            if (spawnConfigUtils.getSpawnPoint(world) != null
+                    || config.getConfig().isSet(CONFIG_PATH + ".worlds." + world.getName())) {
+                warm(world);
+            }
+        }
+    }
+
+    /**
+     * (Re)computes the warm area of a world around its current spawn points.
+     * <p>
+     * Tickets for chunks that are no longer inside the area are released, and
+     * missing chunks are loaded asynchronously before being ticketed.
+     *
+     * @param world the world whose spawn area should be kept loaded
+     */
+    public synchronized void warm(World world) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        List<Location> spawns = spawnConfigUtils.getSpawnLocations(world);
+        int radius = Math.max(0, config.getInt(
+                CONFIG_PATH + ".worlds." + world.getName(),
+                config.getInt(CONFIG_PATH + ".default-radius", 2)
+        ));
+        radius = fitToBudget(world, radius, spawns.size());
+        if (radius < 0) {
+            plugin.getLogger().warning("Chunk warm-up budget exhausted; skipping world '" + world.getName() + "'.");
+            release(world);
+            return;
+        }
+
+        Set<Long> wanted = new HashSet<>();
+        for (Location spawn : spawns) {
+            int centerX = spawn.getBlockX() >> 4;
+            int centerZ = spawn.getBlockZ() >> 4;
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    wanted.add(Chunk.getChunkKey(x, z));
+                }
+            }
+        }
+
+        Set<Long> previous = ticketed.put(world.getUID(), wanted);
+        if (previous != null) {
+            for (long key : previous) {
+                if (!wanted.contains(key)) {
+                    int chunkX = (int) key;
+                    int chunkZ = (int) (key >> 32);
+                    chunkTickets.release(world, chunkX, chunkZ);
+                }
+            }
+        }
+
+        for (long key : wanted) {
+            if (previous != null && previous.contains(key)) {
+                continue;
+            }
+
+            int chunkX = (int) key;
+            int chunkZ = (int) (key >> 32);
+            chunkTickets.acquire(world, chunkX, chunkZ).whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to warm chunk " + chunkX + "," + chunkZ
+                            + " in world '" + world.getName() + "'", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases every ticket held for the given world.
+     *
+     * @param world the world to release
+     */
+    public synchronized void release(World world) {
+        Set<Long> previous = ticketed.remove(world.getUID());
+        if (previous != null) {
+            for (long key : previous) {
+                chunkTickets.release(world, (int) key, (int) (key >> 32));
+            }
+        }
+    }
+
+    /**
+     * Forgets every warmed area. Called when the plugin is disabled, after
+     * which Bukkit removes the plugin's tickets itself.
+     */
+    public synchronized void releaseAll() {
+        ticketed.clear();
+    }
+
+    /**
+     * Shrinks the requested radius so the total amount of ticketed chunks,
+     * excluding this world's current area, stays within the configured budget.
+     * Areas around several spawn points are counted as if they did not overlap.
+     *
+     * @return the largest allowed radius, or {@code -1} if not even the spawn chunks fit
+     */
+    private int fitToBudget(World world, int radius, int areas) {
+        int budget = config.getInt(CONFIG_PATH + ".max-chunks", 256);
+
+        int used = 0;
+        for (Map.Entry<UUID, Set<Long>> entry : ticketed.entrySet()) {
+            if (!entry.getKey().equals(world.getUID())) {
+                used += entry.getValue().size();
+            }
+        }
+
+        int remaining = budget - used;
+        while (radius >= 0 && areas * (2 * radius + 1) * (2 * radius + 1) > remaining) {
+            radius--;
+        }
+
+        return radius;
+    }
+}
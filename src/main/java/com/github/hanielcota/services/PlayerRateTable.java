@@ -0,0 +1,198 @@
+package com.github.hanielcota.services;
+
+/**
+ * Open-addressing table holding the rate limit state of online players.
+ * <p>
+ * Rows are keyed on the two {@code long} halves of a player's UUID and stored
+ * in parallel primitive arrays, so lookups neither box the UUID nor allocate.
+ * Collisions are resolved by linear probing and removals use backward-shift
+ * deletion, so no tombstones accumulate as players join and quit.
+ * <p>
+ * Slot indices are only valid until the next insert or removal. Not thread-safe.
+ */
+final class PlayerRateTable {
+
+    /** Value of {@link #getLastTeleport} for a player that has not teleported yet. */
+    static final long NEVER = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private boolean[] used;
+    private long[] mostBits;
+    private long[] leastBits;
+    private long[] lastTeleport;
+    private long[] previousTeleport;
+    private double[] tokens;
+    private long[] refilledAt;
+    private int size;
+
+    PlayerRateTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the slot holding the given key, or {@code -1} if absent
+     */
+    int find(long most, long least) {
+        int mask = used.length - 1;
+        for (int i = slot(most, least, mask); used[i]; i = (i + 1) & mask) {
+            if (mostBits[i] == most && leastBits[i] == least) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot of the given key, creating a row with a full bucket if absent.
+     *
+     * @param tokens initial token count of a new row
+     * @param now    current {@link System#nanoTime()}
+     * @return the slot of the row
+     */
+    int getOrInsert(long most, long least, double tokens, long now) {
+        int existing = find(most, least);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        if ((size + 1) * 2 > used.length) {
+            resize(used.length * 2);
+        }
+
+        int mask = used.length - 1;
+        int i = slot(most, least, mask);
+        while (used[i]) {
+            i = (i + 1) & mask;
+        }
+
+        used[i] = true;
+        mostBits[i] = most;
+        leastBits[i] = least;
+        lastTeleport[i] = NEVER;
+        previousTeleport[i] = NEVER;
+        this.tokens[i] = tokens;
+        refilledAt[i] = now;
+        size++;
+        return i;
+    }
+
+    /**
+     * Removes the row of the given key, if present.
+     */
+    void remove(long most, long least) {
+        int hole = find(most, least);
+        if (hole < 0) {
+            return;
+        }
+
+        int mask = used.length - 1;
+        used[hole] = false;
+        size--;
+
+        // Shift back following rows whose probe sequence passes through the hole.
+        for (int i = (hole + 1) & mask; used[i]; i = (i + 1) & mask) {
+            int home = slot(mostBits[i], leastBits[i], mask);
+            boolean reachable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (reachable) {
+                move(i, hole);
+                used[i] = false;
+                hole = i;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getLastTeleport(int slot) {
+        return lastTeleport[slot];
+    }
+
+    /**
+     * Starts a new cooldown, remembering the previous one for {@link #restoreLastTeleport}.
+     */
+    void setLastTeleport(int slot, long nanos) {
+        previousTeleport[slot] = lastTeleport[slot];
+        lastTeleport[slot] = nanos;
+    }
+
+    /**
+     * Puts back the cooldown replaced by the last {@link #setLastTeleport}.
+     */
+    void restoreLastTeleport(int slot) {
+        lastTeleport[slot] = previousTeleport[slot];
+        previousTeleport[slot] = NEVER;
+    }
+
+    double getTokens(int slot) {
+        return tokens[slot];
+    }
+
+    long getRefilledAt(int slot) {
+        return refilledAt[slot];
+    }
+
+    void setTokens(int slot, double value, long refilledAtNanos) {
+        tokens[slot] = value;
+        refilledAt[slot] = refilledAtNanos;
+    }
+
+    private void move(int from, int to) {
+        used[to] = true;
+        mostBits[to] = mostBits[from];
+        leastBits[to] = leastBits[from];
+        lastTeleport[to] = lastTeleport[from];
+        previousTeleport[to] = previousTeleport[from];
+        tokens[to] = tokens[from];
+        refilledAt[to] = refilledAt[from];
+    }
+
+    private void resize(int capacity) {
+        boolean[] oldUsed = used;
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        long[] oldLast = lastTeleport;
+        long[] oldPrevious = previousTeleport;
+        double[] oldTokens = tokens;
+        long[] oldRefilled = refilledAt;
+
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldUsed.length; j++) {
+            if (!oldUsed[j]) {
+                continue;
+            }
+
+            int i = slot(oldMost[j], oldLeast[j], mask);
+            while (used[i]) {
+                i = (i + 1) & mask;
+            }
+
+            used[i] = true;
+            mostBits[i] = oldMost[j];
+            leastBits[i] = oldLeast[j];
+            lastTeleport[i] = oldLast[j];
+            previousTeleport[i] = oldPrevious[j];
+            tokens[i] = oldTokens[j];
+            refilledAt[i] = oldRefilled[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        used = new boolean[capacity];
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        lastTeleport = new long[capacity];
+        previousTeleport = new long[capacity];
+        tokens = new double[capacity];
+        refilledAt = new long[capacity];
+    }
+
+    private static int slot(long most, long least, int mask) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
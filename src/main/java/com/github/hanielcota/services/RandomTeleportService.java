@@ -0,0 +1,457 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Random teleports into configured worlds, served from pools of pre-validated
+ * safe destinations.
+ * <p>
+ * Each world listed under {@code random-teleport.worlds} has a pool of up to
+ * {@code pool-size} destinations inside a square around its configured center.
+ * A repeating task on the global region tops the pools up: it picks a random
+ * chunk inside the bounds, loads it through {@link World#getChunkAtAsync},
+ * takes a {@link ChunkSnapshot} on the chunk's thread and scans a few random
+ * columns off-thread with the rules of {@link SpawnSafetyService}. At most
+ * {@code concurrent-searches} chunks per world are in flight. Taking a
+ * destination is a constant-time pop followed by a check of the three blocks
+ * the player will occupy, since blocks may have changed since the scan or,
+ * for destinations read back from disk, since the last run; unsafe ones are
+ * discarded and the next one is tried.
+ * <p>
+ * Pools are written to {@code random-locations.dat} by a dedicated I/O thread,
+ * periodically while they change and on shutdown, and read back on start, so
+ * they survive restarts. The file is {@code [int magic][int version][int worlds]}
+ * followed, per world, by {@code [long msb][long lsb][int count][long position]...}.
+ * A destination left outside the bounds by a configuration change is dropped
+ * when taken.
+ * <p>
+ * The refill task and the I/O thread always run, so enabling random teleports
+ * through a reload takes effect without a restart.
+ */
+public class RandomTeleportService {
+
+    private static final String CONFIG_PATH = "random-teleport";
+    private static final String FILE_NAME = "random-locations.dat";
+    private static final int FILE_MAGIC = 0x574C5254;
+    private static final int FILE_VERSION = 1;
+    private static final int MAX_TAKE_ATTEMPTS = 3;
+
+    /** Marks "no destination"; it packs x = -2^25, outside any world border. */
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
+    private final Path file;
+    private final ScheduledExecutorService ioExecutor;
+
+    private final Map<UUID, Pool> pools = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private TaskScheduler.Task task;
+
+    public RandomTeleportService(JavaPlugin plugin, TaskScheduler scheduler, ConfigUtils config) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.file = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-RandomTeleport");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return whether random teleports are enabled in the configuration
+     */
+    public boolean isEnabled() {
+        return config.getBoolean(CONFIG_PATH + ".enabled");
+    }
+
+    /**
+     * Loads the saved pools on the I/O thread and starts the refill task and
+     * the periodic save. Both do nothing while random teleports are disabled.
+     */
+    public void start() {
+        ioExecutor.execute(this::load);
+
+        long interval = Math.max(1, config.getInt(CONFIG_PATH + ".save-interval-seconds", 60));
+        ioExecutor.scheduleWithFixedDelay(this::saveIfDirty, interval, interval, TimeUnit.SECONDS);
+
+        long refillTicks = Math.max(1, config.getInt(CONFIG_PATH + ".refill-interval-ticks", 20));
+        task = scheduler.runGlobalTimer(this::refillAll, refillTicks, refillTicks);
+    }
+
+    /**
+     * Stops refilling and writes the pools to disk.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        try {
+            ioExecutor.submit(this::saveIfDirty).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not save random teleport destinations", e);
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param world the world
+     * @return whether random teleports are enabled and configured for the world
+     */
+    public boolean isAvailable(World world) {
+        return isEnabled() && bounds(world) != null;
+    }
+
+    /**
+     * Takes a destination from the pool of a world, checks it is still safe
+     * and starts refilling the pool. Up to {@value #MAX_TAKE_ATTEMPTS}
+     * destinations are checked before giving up.
+     *
+     * @param world the world
+     * @return a future completing with a safe location, or with {@code null}
+     * if the pool ran out or the world is not configured
+     */
+    public CompletableFuture<Location> take(World world) {
+        Bounds bounds = bounds(world);
+        if (bounds == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Pool pool = pools.computeIfAbsent(world.getUID(), id -> new Pool());
+        CompletableFuture<Location> result = new CompletableFuture<>();
+        takeSafe(world, bounds, pool, MAX_TAKE_ATTEMPTS, result);
+        return result;
+    }
+
+    private void takeSafe(World world, Bounds bounds, Pool pool, int attempts, CompletableFuture<Location> result) {
+        long position = NONE;
+        long popped;
+        while (position == NONE && (popped = pool.pop()) != NONE) {
+            dirty.set(true);
+            if (bounds.contains(unpackX(popped), unpackZ(popped))) {
+                position = popped;
+            }
+        }
+        refill(world, bounds, pool);
+
+        if (position == NONE) {
+            result.complete(null);
+            return;
+        }
+
+        int x = unpackX(position);
+        int y = unpackY(position);
+        int z = unpackZ(position);
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        world.getChunkAtAsync(x >> 4, z >> 4)
+                .thenApply(chunk -> SpawnSafetyService.isSafe(chunk.getChunkSnapshot(false, false, false),
+                        x & 15, y, z & 15, minY, maxY))
+                .whenComplete((safe, ex) -> {
+                    if (ex == null && safe) {
+                        result.complete(new Location(world, x + 0.5, y, z + 0.5));
+                    } else if (attempts > 1) {
+                        takeSafe(world, bounds, pool, attempts - 1, result);
+                    } else {
+                        result.complete(null);
+                    }
+                });
+    }
+
+    /**
+     * @param world the world
+     * @return the number of destinations ready in the world's pool
+     */
+    public int getPoolSize(World world) {
+        Pool pool = pools.get(world.getUID());
+        return pool == null ? 0 : pool.size();
+    }
+
+    private void refillAll() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        ConfigurationSection worlds = config.getConfig().getConfigurationSection(CONFIG_PATH + ".worlds");
+        if (worlds == null) {
+            return;
+        }
+
+        for (String worldName : worlds.getKeys(false)) {
+            World world = Bukkit.getWorld(worldName);
+            Bounds bounds = world != null ? bounds(world) : null;
+            if (bounds != null) {
+                refill(world, bounds, pools.computeIfAbsent(world.getUID(), id -> new Pool()));
+            }
+        }
+    }
+
+    private void refill(World world, Bounds bounds, Pool pool) {
+        int target = poolSize();
+        int maxSearches = Math.max(1, config.getInt(CONFIG_PATH + ".concurrent-searches", 2));
+        while (pool.tryStartSearch(target, maxSearches)) {
+            search(world, bounds, pool, target);
+        }
+    }
+
+    /**
+     * Loads one random chunk inside the bounds and scans it for a destination.
+     */
+    private void search(World world, Bounds bounds, Pool pool, int target) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int chunkX = (bounds.centerX() + random.nextInt(-bounds.radius(), bounds.radius() + 1)) >> 4;
+        int chunkZ = (bounds.centerZ() + random.nextInt(-bounds.radius(), bounds.radius() + 1)) >> 4;
+
+        boolean generate = config.getConfig().getBoolean(CONFIG_PATH + ".generate-chunks", true);
+        int columns = Math.max(1, config.getInt(CONFIG_PATH + ".columns-per-chunk", 8));
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        // Worlds with a ceiling are scanned downwards from below it instead of from the surface.
+        int ceiling = world.hasCeiling() ? Math.min(maxY, minY + world.getLogicalHeight()) - 1 : Integer.MIN_VALUE;
+
+        world.getChunkAtAsync(chunkX, chunkZ, generate)
+                .thenApply(chunk -> chunk == null ? null : chunk.getChunkSnapshot(true, false, false))
+                .thenApplyAsync(snapshot -> snapshot == null
+                        ? NONE
+                        : scan(snapshot, bounds, columns, ceiling, minY, maxY), scheduler::runAsync)
+                .whenComplete((position, ex) -> {
+                    if (ex != null) {
+                        plugin.getLogger().log(Level.WARNING, "Failed to search a random destination in world '"
+                                + world.getName() + "'", ex);
+                    }
+
+                    if (pool.finishSearch(ex == null ? position : NONE, target)) {
+                        dirty.set(true);
+                    }
+                });
+    }
+
+    private static long scan(ChunkSnapshot snapshot, Bounds bounds, int columns, int ceiling, int minY, int maxY) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int baseX = snapshot.getX() << 4;
+        int baseZ = snapshot.getZ() << 4;
+
+        for (int attempt = 0; attempt < columns; attempt++) {
+            int localX = random.nextInt(16);
+            int localZ = random.nextInt(16);
+            int x = baseX + localX;
+            int z = baseZ + localZ;
+            if (!bounds.contains(x, z)) {
+                continue;
+            }
+
+            if (ceiling == Integer.MIN_VALUE) {
+                int y = snapshot.getHighestBlockYAt(localX, localZ) + 1;
+                if (SpawnSafetyService.isSafe(snapshot, localX, y, localZ, minY, maxY)) {
+                    return pack(x, y, z);
+                }
+                continue;
+            }
+
+            for (int y = ceiling; y > minY; y--) {
+                if (SpawnSafetyService.isSafe(snapshot, localX, y, localZ, minY, maxY)) {
+                    return pack(x, y, z);
+                }
+            }
+        }
+
+        return NONE;
+    }
+
+    private Bounds bounds(World world) {
+        ConfigurationSection section = config.getConfig().getConfigurationSection(CONFIG_PATH + ".worlds." + world.getName());
+        if (section == null) {
+            return null;
+        }
+
+        int radius = section.getInt("radius", 0);
+        if (radius <= 0) {
+            return null;
+        }
+        return new Bounds(section.getInt("center-x", 0), section.getInt("center-z", 0), radius);
+    }
+
+    private int poolSize() {
+        return Math.max(1, config.getInt(CONFIG_PATH + ".pool-size", 16));
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.getInt() != FILE_MAGIC) {
+                throw new IOException("Not a random destination file");
+            }
+
+            int version = buffer.getInt();
+            if (version > FILE_VERSION) {
+                plugin.getLogger().warning("Ignoring " + FILE_NAME + " written by a newer version (" + version + ")");
+                return;
+            }
+
+            int capacity = poolSize();
+            int worlds = buffer.getInt();
+            for (int i = 0; i < worlds; i++) {
+                UUID worldId = new UUID(buffer.getLong(), buffer.getLong());
+                Pool pool = pools.computeIfAbsent(worldId, id -> new Pool());
+                int count = buffer.getInt();
+                for (int j = 0; j < count; j++) {
+                    pool.push(buffer.getLong(), capacity);
+                }
+            }
+        } catch (IOException | BufferUnderflowException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not load " + FILE_NAME + "; random destinations will be searched again", e);
+        }
+    }
+
+    private void saveIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        Map<UUID, long[]> contents = new LinkedHashMap<>();
+        int size = Integer.BYTES * 3;
+        for (Map.Entry<UUID, Pool> entry : pools.entrySet()) {
+            long[] positions = entry.getValue().toArray();
+            contents.put(entry.getKey(), positions);
+            size += Long.BYTES * 2 + Integer.BYTES + Long.BYTES * positions.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(contents.size());
+        for (Map.Entry<UUID, long[]> entry : contents.entrySet()) {
+            buffer.putLong(entry.getKey().getMostSignificantBits());
+            buffer.putLong(entry.getKey().getLeastSignificantBits());
+            buffer.putInt(entry.getValue().length);
+            for (long position : entry.getValue()) {
+                buffer.putLong(position);
+            }
+        }
+
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(temp, buffer.array());
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            plugin.getLogger().log(Level.SEVERE, "Could not save " + FILE_NAME, e);
+        }
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    private static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    private static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    private static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    /**
+     * Square, centered on {@code centerX}/{@code centerZ}, that destinations are picked from.
+     */
+    private record Bounds(int centerX, int centerZ, int radius) {
+
+        boolean contains(int x, int z) {
+            return Math.abs(x - centerX) <= radius && Math.abs(z - centerZ) <= radius;
+        }
+    }
+
+    /**
+     * Destinations ready in one world, as packed block positions, plus the
+     * number of searches in flight. Order does not matter, so it is a stack.
+     */
+    private static final class Pool {
+        private long[] positions = new long[16];
+        private int size;
+        private int searches;
+
+        synchronized long pop() {
+            return size == 0 ? NONE : positions[--size];
+        }
+
+        synchronized boolean push(long position, int capacity) {
+            if (size >= capacity) {
+                return false;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[size++] = position;
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized boolean tryStartSearch(int target, int maxSearches) {
+            if (searches >= maxSearches || size + searches >= target) {
+                return false;
+            }
+            searches++;
+            return true;
+        }
+
+        /**
+         * @return whether a destination was added
+         */
+        synchronized boolean finishSearch(long position, int capacity) {
+            searches--;
+            return position != NONE && push(position, capacity);
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
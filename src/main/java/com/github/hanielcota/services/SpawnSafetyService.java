@@ -0,0 +1,310 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigUtils;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Service that verifies spawn points are safe to land on.
+ * <p>
+ * The spawn chunk is loaded asynchronously, a {@link ChunkSnapshot} is taken and
+ * scanned off the main thread: first the spawn column around the configured
+ * height, then a bounded spiral of neighbouring columns inside the same chunk.
+ * The verdict (a safe location, or none) is stored per spawn block position, so
+ * every spawn point of a world keeps its own, and reused until a block changes
+ * inside the scanned bounding box. A scan overlapping an invalidation of its
+ * world still completes, but its verdict is not stored.
+ * <p>
+ * Returned futures always complete on the thread owning the spawn chunk.
+ */
+public class SpawnSafetyService {
+
+    private static final String CONFIG_PATH = "safety";
+
+    private static final Set<Material> HAZARDS = EnumSet.of(
+            Material.LAVA,
+            Material.FIRE,
+            Material.SOUL_FIRE,
+            Material.MAGMA_BLOCK,
+            Material.CACTUS,
+            Material.CAMPFIRE,
+            Material.SOUL_CAMPFIRE,
+            Material.SWEET_BERRY_BUSH,
+            Material.WITHER_ROSE,
+            Material.POWDER_SNOW,
+            Material.POINTED_DRIPSTONE
+    );
+
+    private final JavaPlugin plugin;
+    private final ConfigUtils config;
+    private final TaskScheduler scheduler;
+
+    private final Map<UUID, Map<Long, Verdict>> verdicts = new ConcurrentHashMap<>();
+    private final Map<SpawnKey, CompletableFuture<Verdict>> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public SpawnSafetyService(JavaPlugin plugin, ConfigUtils config, TaskScheduler scheduler) {
+        this.plugin = plugin;
+        this.config = config;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Resolves a safe landing location for the given spawn.
+     * <p>
+     * When safety checks are disabled the spawn is returned unchanged.
+     *
+     * @param world the world the spawn belongs to
+     * @param spawn the configured spawn location
+     * @return a future completing with a safe location, or {@code null} when none was found
+     */
+    public CompletableFuture<Location> resolveSafeLocation(World world, Location spawn) {
+        if (!config.getBoolean(CONFIG_PATH + ".enabled")) {
+            return CompletableFuture.completedFuture(spawn);
+        }
+
+        long position = pack(spawn.getBlockX(), spawn.getBlockY(), spawn.getBlockZ());
+        Map<Long, Verdict> worldVerdicts = verdicts.get(world.getUID());
+        Verdict cached = worldVerdicts != null ? worldVerdicts.get(position) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.toLocation(world, spawn));
+        }
+
+        SpawnKey key = new SpawnKey(world.getUID(), position);
+        CompletableFuture<Verdict> future = pending.get(key);
+        if (future == null) {
+            CompletableFuture<Verdict> created = new CompletableFuture<>();
+            future = pending.putIfAbsent(key, created);
+            if (future == null) {
+                future = created;
+                scan(world, spawn, key, created);
+            }
+        }
+
+        return future.thenApplyAsync(verdict -> verdict.toLocation(world, spawn),
+                scheduler.chunkExecutor(world, spawn.getBlockX() >> 4, spawn.getBlockZ() >> 4));
+    }
+
+    /**
+     * Checks that a player can stand at an exact position, such as a stored
+     * return point whose blocks may have changed since it was recorded.
+     * Unlike {@link #resolveSafeLocation}, no other position is searched and
+     * the verdict is not stored, so arbitrary positions do not fill the cache.
+     * <p>
+     * When safety checks are disabled every position is safe.
+     *
+     * @param world    the world the position belongs to
+     * @param location the position to check
+     * @return a future completing with whether the position is safe
+     */
+    public CompletableFuture<Boolean> checkPosition(World world, Location location) {
+        if (!config.getBoolean(CONFIG_PATH + ".enabled")) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+
+        // Three block reads: done on the thread owning the chunk, where the load completes.
+        return world.getChunkAtAsync(x >> 4, z >> 4)
+                .thenApply(chunk -> isSafe(chunk.getChunkSnapshot(false, false, false), x & 15, y, z & 15, minY, maxY))
+                .exceptionally(ex -> {
+                    plugin.getLogger().log(Level.WARNING, "Failed to check position safety in world '" + world.getName() + "'", ex);
+                    return false;
+                });
+    }
+
+    /**
+     * Drops the stored verdicts of a world.
+     *
+     * @param world the world whose verdicts are no longer valid
+     */
+    public void invalidate(World world) {
+        generation(world.getUID()).incrementAndGet();
+        verdicts.remove(world.getUID());
+    }
+
+    /**
+     * Drops the stored verdicts of a world whose scanned bounding box contains
+     * the block position.
+     *
+     * @param world the world the block belongs to
+     * @param x     block x
+     * @param y     block y
+     * @param z     block z
+     */
+    public void invalidate(World world, int x, int y, int z) {
+        if (verdicts.isEmpty() && pending.isEmpty()) {
+            return;
+        }
+
+        // In-flight scans may have read the block before it changed.
+        if (!pending.isEmpty()) {
+            generation(world.getUID()).incrementAndGet();
+        }
+
+        Map<Long, Verdict> worldVerdicts = verdicts.get(world.getUID());
+        if (worldVerdicts != null) {
+            worldVerdicts.values().removeIf(verdict -> verdict.contains(x, y, z));
+        }
+    }
+
+    private void scan(World world, Location spawn, SpawnKey key, CompletableFuture<Verdict> result) {
+        int radius = Math.max(0, config.getInt(CONFIG_PATH + ".search-radius", 3));
+        int height = Math.max(1, config.getInt(CONFIG_PATH + ".search-height", 8));
+
+        int spawnX = spawn.getBlockX();
+        int spawnY = spawn.getBlockY();
+        int spawnZ = spawn.getBlockZ();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        AtomicLong generation = generation(world.getUID());
+        long startGeneration = generation.get();
+
+        world.getChunkAtAsync(spawnX >> 4, spawnZ >> 4)
+                .thenApply(chunk -> chunk.getChunkSnapshot(false, false, false))
+                .thenApplyAsync(snapshot -> search(snapshot, spawnX, spawnY, spawnZ, radius, height, minY, maxY), scheduler::runAsync)
+                .exceptionally(ex -> {
+                    plugin.getLogger().log(Level.WARNING, "Failed to check spawn safety of world '" + world.getName() + "'", ex);
+                    return Verdict.unsafe(spawnX, spawnY, spawnZ, radius, height);
+                })
+                .thenAccept(verdict -> {
+                    if (generation.get() == startGeneration) {
+                        Map<Long, Verdict> worldVerdicts = verdicts.computeIfAbsent(world.getUID(), id -> new ConcurrentHashMap<>());
+                        worldVerdicts.put(key.position(), verdict);
+                        // An invalidation between the check and the put must not leave the verdict behind.
+                        if (generation.get() != startGeneration) {
+                            worldVerdicts.remove(key.position(), verdict);
+                        }
+                    }
+                    pending.remove(key, result);
+                    result.complete(verdict);
+                });
+    }
+
+    private AtomicLong generation(UUID worldId) {
+        return generations.computeIfAbsent(worldId, id -> new AtomicLong());
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    private static Verdict search(ChunkSnapshot snapshot, int spawnX, int spawnY, int spawnZ,
+                                  int radius, int height, int minY, int maxY) {
+        int localX = spawnX & 15;
+        int localZ = spawnZ & 15;
+
+        if (isSafe(snapshot, localX, spawnY, localZ, minY, maxY)) {
+            return Verdict.safe(spawnX, spawnY, spawnZ, spawnX, spawnY, spawnZ, radius, height);
+        }
+
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) {
+                        continue;
+                    }
+
+                    int x = localX + dx;
+                    int z = localZ + dz;
+                    if (x < 0 || x > 15 || z < 0 || z > 15) {
+                        continue;
+                    }
+
+                    for (int offset = 0; offset <= height; offset++) {
+                        if (isSafe(snapshot, x, spawnY + offset, z, minY, maxY)) {
+                            return Verdict.safe(spawnX, spawnY, spawnZ, spawnX + dx, spawnY + offset, spawnZ + dz, radius, height);
+                        }
+                        if (offset > 0 && isSafe(snapshot, x, spawnY - offset, z, minY, maxY)) {
+                            return Verdict.safe(spawnX, spawnY, spawnZ, spawnX + dx, spawnY - offset, spawnZ + dz, radius, height);
+                        }
+                    }
+                }
+            }
+        }
+
+        return Verdict.unsafe(spawnX, spawnY, spawnZ, radius, height);
+    }
+
+    /**
+     * Checks that a player can stand at a position of a chunk snapshot: solid,
+     * harmless ground and two free, harmless blocks above it.
+     *
+     * @param x chunk-local x
+     * @param y block y of the feet
+     * @param z chunk-local z
+     */
+    static boolean isSafe(ChunkSnapshot snapshot, int x, int y, int z, int minY, int maxY) {
+        if (y - 1 < minY || y + 1 >= maxY) {
+            return false;
+        }
+
+        Material ground = snapshot.getBlockType(x, y - 1, z);
+        Material feet = snapshot.getBlockType(x, y, z);
+        Material head = snapshot.getBlockType(x, y + 1, z);
+
+        return ground.isSolid() && !HAZARDS.contains(ground)
+                && !feet.isSolid() && !HAZARDS.contains(feet)
+                && !head.isSolid() && !HAZARDS.contains(head);
+    }
+
+    /**
+     * Stored outcome of a safety scan for one spawn.
+     * The bounding box covers every block the scan read.
+     */
+    private record Verdict(int spawnX, int spawnY, int spawnZ, boolean safe,
+                           int safeX, int safeY, int safeZ,
+                           int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+        static Verdict safe(int spawnX, int spawnY, int spawnZ, int safeX, int safeY, int safeZ, int radius, int height) {
+            return new Verdict(spawnX, spawnY, spawnZ, true, safeX, safeY, safeZ,
+                    spawnX - radius, spawnY - height - 1, spawnZ - radius,
+                    spawnX + radius, spawnY + height + 1, spawnZ + radius);
+        }
+
+        static Verdict unsafe(int spawnX, int spawnY, int spawnZ, int radius, int height) {
+            return new Verdict(spawnX, spawnY, spawnZ, false, 0, 0, 0,
+                    spawnX - radius, spawnY - height - 1, spawnZ - radius,
+                    spawnX + radius, spawnY + height + 1, spawnZ + radius);
+        }
+
+        boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        Location toLocation(World world, Location spawn) {
+            if (!safe) {
+                return null;
+            }
+
+            if (safeX == spawnX && safeY == spawnY && safeZ == spawnZ) {
+                return spawn.clone();
+            }
+
+            return new Location(world, safeX + 0.5, safeY, safeZ + 0.5, spawn.getYaw(), spawn.getPitch());
+        }
+    }
+
+    /**
+     * Identifies a scan: the world and the packed block position of the spawn.
+     */
+    private record SpawnKey(UUID worldId, long position) {
+    }
+}
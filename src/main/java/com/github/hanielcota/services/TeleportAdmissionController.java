@@ -0,0 +1,291 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.MessageKey;
+import com.github.hanielcota.utils.MessageService;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission controller placed in front of {@link TeleportService#teleportToWorld}.
+ * <p>
+ * Each target world has a cap on in-flight teleports. Requests above the cap
+ * are queued in FIFO order and released by a repeating task, at most
+ * {@code admission.admits-per-tick} per world and tick. Queued players are told
+ * their position through {@link MessageService}, and every returned future
+ * completes exactly once with the final {@link TeleportResult}.
+ * <p>
+ * {@link #submit} may be called from any region thread; the release task runs
+ * on the global region.
+ */
+public class TeleportAdmissionController {
+
+    private static final String CONFIG_PATH = "admission";
+    private static final MessageKey QUEUED = MessageKey.of("queued");
+
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
+    private final TeleportService teleportService;
+    private final MessageService messageService;
+
+    private final Map<String, WorldQueue> queues = new ConcurrentHashMap<>();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder admittedFromQueue = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private TaskScheduler.Task task;
+
+    public TeleportAdmissionController(TaskScheduler scheduler, ConfigUtils config,
+                                       TeleportService teleportService, MessageService messageService) {
+        this.scheduler = scheduler;
+        this.config = config;
+        this.teleportService = teleportService;
+        this.messageService = messageService;
+    }
+
+    /**
+     * Starts the per-tick release task.
+     */
+    public void start() {
+        if (task == null) {
+            task = scheduler.runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the release task and fails every request still waiting in a queue.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        for (WorldQueue queue : queues.values()) {
+            Ticket ticket;
+            while ((ticket = queue.poll()) != null) {
+                ticket.future.complete(TeleportResult.GENERIC_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Submits a teleport request, dispatching it immediately when the target
+     * world has capacity left in this tick, or queueing it otherwise.
+     *
+     * @param player      the player to teleport
+     * @param targetWorld the target world
+     * @return a future completed once with the teleport result
+     */
+    public CompletableFuture<TeleportResult> submit(Player player, TargetWorld targetWorld) {
+        return submit(player, targetWorld, false);
+    }
+
+    /**
+     * Submits a teleport request to the spawn or to a random destination of
+     * the target world. Both kinds share the world's capacity.
+     *
+     * @param player      the player to teleport
+     * @param targetWorld the target world
+     * @param random      whether to use {@link TeleportService#teleportToRandomLocation}
+     * @return a future completed once with the teleport result
+     */
+    public CompletableFuture<TeleportResult> submit(Player player, TargetWorld targetWorld, boolean random) {
+        if (player == null || targetWorld == null) {
+            return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
+        }
+
+        if (!config.getBoolean(CONFIG_PATH + ".enabled")) {
+            return teleport(player, targetWorld, random);
+        }
+
+        WorldQueue queue = queues.computeIfAbsent(targetWorld.worldName(), name -> new WorldQueue());
+        Ticket ticket = new Ticket(player, targetWorld, random, new CompletableFuture<>(), System.nanoTime());
+
+        int position = queue.admitOrOffer(ticket, maxInFlight(), admitsPerTick());
+        if (position == 0) {
+            dispatch(queue, ticket);
+            return ticket.future;
+        }
+
+        messageService.send(player, QUEUED, Map.of(
+                "world", targetWorld.worldName(),
+                "position", Integer.toString(position)
+        ));
+
+        return ticket.future;
+    }
+
+    private void tick() {
+        int maxInFlight = maxInFlight();
+        int admitsPerTick = admitsPerTick();
+
+        for (WorldQueue queue : queues.values()) {
+            queue.resetTick();
+
+            Ticket ticket;
+            while ((ticket = queue.admitNext(maxInFlight, admitsPerTick)) != null) {
+                if (!ticket.player.isOnline()) {
+                    queue.release();
+                    ticket.future.complete(TeleportResult.GENERIC_FAILURE);
+                    continue;
+                }
+
+                long waited = System.nanoTime() - ticket.enqueuedAt;
+                totalWaitNanos.add(waited);
+                admittedFromQueue.increment();
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+                dispatch(queue, ticket);
+            }
+        }
+    }
+
+    private void dispatch(WorldQueue queue, Ticket ticket) {
+        CompletableFuture<TeleportResult> teleport;
+        try {
+            teleport = teleport(ticket.player, ticket.targetWorld, ticket.random);
+        } catch (RuntimeException e) {
+            // Free the slot; otherwise the world would stay one teleport short for good.
+            queue.release();
+            ticket.future.complete(TeleportResult.GENERIC_FAILURE);
+            return;
+        }
+
+        teleport.whenComplete((result, ex) -> {
+            queue.release();
+            ticket.future.complete(ex == null ? result : TeleportResult.GENERIC_FAILURE);
+        });
+    }
+
+    private CompletableFuture<TeleportResult> teleport(Player player, TargetWorld targetWorld, boolean random) {
+        return random
+                ? teleportService.teleportToRandomLocation(player, targetWorld)
+                : teleportService.teleportToWorld(player, targetWorld);
+    }
+
+    private int maxInFlight() {
+        return Math.max(1, config.getInt(CONFIG_PATH + ".max-in-flight-per-world", 20));
+    }
+
+    private int admitsPerTick() {
+        return Math.max(1, config.getInt(CONFIG_PATH + ".admits-per-tick", 5));
+    }
+
+    /**
+     * @return current queue statistics per target world name
+     */
+    public Map<String, QueueStats> getQueueStats() {
+        Map<String, QueueStats> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, WorldQueue> entry : queues.entrySet()) {
+            WorldQueue queue = entry.getValue();
+            stats.put(entry.getKey(), new QueueStats(queue.size(), queue.inFlight.get()));
+        }
+        return stats;
+    }
+
+    /**
+     * @return the average time, in milliseconds, spent queued by admitted requests
+     */
+    public double getAverageWaitMillis() {
+        long count = admittedFromQueue.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * @return the longest time, in milliseconds, a request spent queued
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Snapshot of a single world queue.
+     *
+     * @param queued   requests waiting for admission
+     * @param inFlight teleports currently running
+     */
+    public record QueueStats(int queued, int inFlight) {
+    }
+
+    private record Ticket(Player player, TargetWorld targetWorld, boolean random,
+                          CompletableFuture<TeleportResult> future, long enqueuedAt) {
+    }
+
+    private static final class WorldQueue {
+        private final ArrayDeque<Ticket> pending = new ArrayDeque<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private int admittedThisTick;
+
+        /**
+         * Admits a new ticket if nothing is queued ahead of it and capacity is
+         * left, or queues it otherwise, as one step.
+         *
+         * @return {@code 0} if admitted, else the ticket's queue position
+         */
+        private synchronized int admitOrOffer(Ticket ticket, int maxInFlight, int admitsPerTick) {
+            if (pending.isEmpty() && tryAcquire(maxInFlight, admitsPerTick)) {
+                return 0;
+            }
+
+            pending.addLast(ticket);
+            return pending.size();
+        }
+
+        /**
+         * Takes the head of the queue if capacity is left, as one step.
+         *
+         * @return the admitted ticket, or {@code null} if the queue is empty or full
+         */
+        private synchronized Ticket admitNext(int maxInFlight, int admitsPerTick) {
+            if (pending.isEmpty() || !tryAcquire(maxInFlight, admitsPerTick)) {
+                return null;
+            }
+            return pending.pollFirst();
+        }
+
+        private synchronized Ticket poll() {
+            return pending.pollFirst();
+        }
+
+        private synchronized int size() {
+            return pending.size();
+        }
+
+        private boolean tryAcquire(int maxInFlight, int admitsPerTick) {
+            if (admittedThisTick >= admitsPerTick) {
+                return false;
+            }
+
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= maxInFlight) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+
+            admittedThisTick++;
+            return true;
+        }
+
+        private synchronized void resetTick() {
+            admittedThisTick = 0;
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
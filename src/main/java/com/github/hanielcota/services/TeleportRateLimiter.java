@@ -0,0 +1,243 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.utils.ConfigSnapshot;
+import com.github.hanielcota.utils.ConfigUtils;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cooldowns and token-bucket rate limits for player-initiated teleports.
+ * <p>
+ * A request passes when the player's cooldown has elapsed and the player, the
+ * target world and the whole server each have a token left in their bucket.
+ * Buckets hold up to {@code capacity} tokens and regain
+ * {@code refill-per-second} tokens every second. The cooldown defaults to
+ * {@code rate-limit.cooldown-seconds} and can be overridden per world with the
+ * {@code cooldown-seconds} option of a {@code worlds.entries} entry.
+ * <p>
+ * Per-player state lives in a {@link PlayerRateTable} and settings are cached
+ * per configuration snapshot, so a check neither allocates nor reads the YAML
+ * tree. Commands run on several region threads on Folia, so every method is
+ * serialized by a lock, which stays uncontended on Paper.
+ */
+public class TeleportRateLimiter {
+
+    private static final String CONFIG_PATH = "rate-limit";
+    private static final String BYPASS_PERMISSION = "worldlink.bypass.ratelimit";
+    private static final String COOLDOWN_OPTION = "cooldown-seconds";
+
+    private final ConfigUtils config;
+
+    private final PlayerRateTable players = new PlayerRateTable();
+    private final Map<String, Bucket> worlds = new HashMap<>();
+    private final Bucket server = new Bucket();
+
+    private Settings settings;
+
+    public TeleportRateLimiter(ConfigUtils config) {
+        this.config = config;
+    }
+
+    /**
+     * Checks the limits for a teleport request and, if it passes, consumes one
+     * token from every bucket and starts the player's cooldown.
+     *
+     * @param player the requesting player
+     * @param target the target world
+     * @return {@link TeleportResult#SUCCESS} when the teleport may proceed,
+     * otherwise {@link TeleportResult#ON_COOLDOWN} or {@link TeleportResult#RATE_LIMITED}
+     */
+    public synchronized TeleportResult tryAcquire(Player player, TargetWorld target) {
+        Settings current = settings();
+        if (!current.enabled || player.hasPermission(BYPASS_PERMISSION)) {
+            return TeleportResult.SUCCESS;
+        }
+
+        long now = System.nanoTime();
+        UUID id = player.getUniqueId();
+        int slot = players.getOrInsert(id.getMostSignificantBits(), id.getLeastSignificantBits(),
+                current.player.capacity, now);
+
+        if (remainingCooldown(slot, target, current, now) > 0) {
+            return TeleportResult.ON_COOLDOWN;
+        }
+
+        Bucket world = current.world.enabled() ? worlds.computeIfAbsent(target.worldName(), name -> new Bucket()) : null;
+
+        double playerTokens = current.player.enabled()
+                ? current.player.refill(players.getTokens(slot), players.getRefilledAt(slot), now)
+                : 1.0;
+        double worldTokens = world != null ? world.refill(current.world, now) : 1.0;
+        double serverTokens = current.server.enabled() ? server.refill(current.server, now) : 1.0;
+
+        if (playerTokens < 1.0 || worldTokens < 1.0 || serverTokens < 1.0) {
+            if (current.player.enabled()) {
+                players.setTokens(slot, playerTokens, now);
+            }
+            return TeleportResult.RATE_LIMITED;
+        }
+
+        if (current.player.enabled()) {
+            players.setTokens(slot, playerTokens - 1.0, now);
+        }
+        if (world != null) {
+            world.tokens -= 1.0;
+        }
+        if (current.server.enabled()) {
+            server.tokens -= 1.0;
+        }
+
+        players.setLastTeleport(slot, now);
+        return TeleportResult.SUCCESS;
+    }
+
+    /**
+     * Gives back what a successful {@link #tryAcquire} took, for a request that
+     * did not end in a teleport: one token to every bucket, and the player's
+     * previous cooldown instead of the one it started.
+     *
+     * @param player the requesting player
+     * @param target the target world
+     */
+    public synchronized void refund(Player player, TargetWorld target) {
+        Settings current = settings();
+        if (!current.enabled || player.hasPermission(BYPASS_PERMISSION)) {
+            return;
+        }
+
+        UUID id = player.getUniqueId();
+        int slot = players.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return;
+        }
+
+        players.restoreLastTeleport(slot);
+        if (current.player.enabled()) {
+            players.setTokens(slot, Math.min(current.player.capacity, players.getTokens(slot) + 1.0),
+                    players.getRefilledAt(slot));
+        }
+
+        Bucket world = worlds.get(target.worldName());
+        if (world != null && current.world.enabled()) {
+            world.giveBack(current.world);
+        }
+        if (current.server.enabled()) {
+            server.giveBack(current.server);
+        }
+    }
+
+    /**
+     * @param player the player
+     * @param target the target world
+     * @return milliseconds left before the player may teleport to the target again
+     */
+    public synchronized long getRemainingCooldownMillis(Player player, TargetWorld target) {
+        UUID id = player.getUniqueId();
+        int slot = players.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return 0;
+        }
+        return Math.max(0, remainingCooldown(slot, target, settings(), System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * Drops the state of a player who left the server.
+     *
+     * @param player the player
+     */
+    public synchronized void forget(Player player) {
+        UUID id = player.getUniqueId();
+        players.remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private long remainingCooldown(int slot, TargetWorld target, Settings current, long now) {
+        long last = players.getLastTeleport(slot);
+        if (last == PlayerRateTable.NEVER) {
+            return 0;
+        }
+
+        long cooldown = current.cooldownNanos;
+        if (target.getOption(COOLDOWN_OPTION, null) instanceof Number seconds) {
+            cooldown = (long) (seconds.doubleValue() * 1_000_000_000L);
+        }
+        return cooldown - (now - last);
+    }
+
+    private Settings settings() {
+        ConfigSnapshot snapshot = config.getSnapshot();
+        Settings current = settings;
+        if (current == null || current.source != snapshot) {
+            current = new Settings(snapshot);
+            settings = current;
+        }
+        return current;
+    }
+
+    /**
+     * Limits read from one configuration snapshot.
+     */
+    private static final class Settings {
+        private final ConfigSnapshot source;
+        private final boolean enabled;
+        private final long cooldownNanos;
+        private final Limit player;
+        private final Limit world;
+        private final Limit server;
+
+        private Settings(ConfigSnapshot source) {
+            this.source = source;
+            this.enabled = source.config().getBoolean(CONFIG_PATH + ".enabled", false);
+            this.cooldownNanos = (long) (Math.max(0.0, source.config().getDouble(CONFIG_PATH + ".cooldown-seconds", 0.0)) * 1_000_000_000L);
+            this.player = Limit.read(source, "player");
+            this.world = Limit.read(source, "world");
+            this.server = Limit.read(source, "server");
+        }
+    }
+
+    /**
+     * Capacity and refill rate of one bucket level; a capacity of zero disables it.
+     */
+    private record Limit(double capacity, double perNano) {
+
+        static Limit read(ConfigSnapshot source, String level) {
+            String path = CONFIG_PATH + "." + level;
+            return new Limit(
+                    Math.max(0.0, source.config().getDouble(path + ".capacity", 0.0)),
+                    Math.max(0.0, source.config().getDouble(path + ".refill-per-second", 0.0)) / 1_000_000_000.0
+            );
+        }
+
+        boolean enabled() {
+            return capacity > 0.0;
+        }
+
+        double refill(double tokens, long refilledAt, long now) {
+            return Math.min(capacity, tokens + (now - refilledAt) * perNano);
+        }
+    }
+
+    /**
+     * Token bucket shared by all players, for one world or the whole server.
+     */
+    private static final class Bucket {
+        private double tokens = Double.NaN;
+        private long refilledAt;
+
+        double refill(Limit limit, long now) {
+            tokens = Double.isNaN(tokens) ? limit.capacity : limit.refill(tokens, refilledAt, now);
+            refilledAt = now;
+            return tokens;
+        }
+
+        void giveBack(Limit limit) {
+            if (!Double.isNaN(tokens)) {
+                tokens = Math.min(limit.capacity, tokens + 1.0);
+            }
+        }
+    }
+}
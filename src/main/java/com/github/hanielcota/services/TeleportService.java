@@ -2,70 +2,140 @@ package com.github.hanielcota.services;
 
 import com.github.hanielcota.enums.TeleportResult;
 import com.github.hanielcota.enums.TeleportTargetWorld;
+import com.github.hanielcota.events.WorldLinkPreTeleportEvent;
+import com.github.hanielcota.events.WorldLinkTeleportCompleteEvent;
+import com.github.hanielcota.models.BatchTeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.proxy.ProxyRouter;
+import com.github.hanielcota.proxy.RoutingTable;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.ReturnPointStore;
 import com.github.hanielcota.utils.SpawnConfigUtils;
+import com.github.hanielcota.utils.TeleportJournal;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Service responsible for performing player teleports to configured world spawn points.
  * <p>
- * This service validates the target world exists and resolves the configured spawn
- * location via {@link SpawnConfigUtils}. Teleports are performed asynchronously and
+ * This service validates the target world exists, picks one of the configured
+ * spawn locations via {@link SpawnConfigUtils} and checks it lands the player
+ * somewhere safe through {@link SpawnSafetyService}. When the player has left the target
+ * world before, the {@link ReturnPointStore} location is used instead of the
+ * spawn, provided it is still safe. Teleports are performed asynchronously and
  * return a {@link CompletableFuture} with a {@link TeleportResult} describing the outcome.
+ * <p>
+ * Worlds loaded on demand are loaded through the {@link WorldLifecycleService}
+ * first, so players asking for an unloaded world wait for it instead of failing.
+ * <p>
+ * {@link #teleportToRandomLocation} sends a player to a pre-validated random
+ * destination of the world, served by the {@link RandomTeleportService}.
+ * <p>
+ * Whole groups can be moved with {@link #teleportAll}, which pre-loads every
+ * spawn point of the destination once and spreads the teleports across ticks.
+ * <p>
+ * Every teleport, including each one of a batch, is recorded in the
+ * {@link TeleportJournal} with its outcome and latency.
+ * <p>
+ * Every teleport is started on the thread owning the player, through the
+ * {@link TaskScheduler}, so on Folia teleports in different regions run in parallel.
  */
 @RequiredArgsConstructor
 public class TeleportService {
 
     private final Logger logger;
+    private final ChunkTicketRegistry chunkTickets;
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
     private final SpawnConfigUtils spawnConfigUtils;
+    private final SpawnSafetyService safetyService;
+    private final ProxyRouter proxyRouter;
+    private final ReturnPointStore returnPointStore;
+    private final RandomTeleportService randomTeleportService;
+    private final WorldLifecycleService worldLifecycle;
+    private final TeleportJournal journal;
+
+    /**
+     * Attempts to teleport a player to the spawn location of a built-in target world.
+     *
+     * @param player      the player to teleport (must not be null)
+     * @param targetWorld the enum identifying the target world
+     * @return a CompletableFuture that completes with the teleport result
+     * @see #teleportToWorld(Player, TargetWorld)
+     */
+    public CompletableFuture<TeleportResult> teleportToWorld(Player player, TeleportTargetWorld targetWorld) {
+        if (targetWorld == null) {
+            return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
+        }
+
+        return teleportToWorld(player, TargetWorld.of(targetWorld.getWorldName()));
+    }
 
     /**
      * Attempts to teleport a player to the spawn location of the requested world.
      * <p>
      * The method performs the following checks in order:
      * - null checks for parameters (returns GENERIC_FAILURE)
-     * - world existence (returns WORLD_NOT_FOUND)
-     * - resolved spawn location safety (returns LOCATION_NOT_SAFE if null)
+     * - world existence (worlds loaded on demand are loaded first; returns
+     *   WORLD_NOT_FOUND, or TRANSFERRED when another backend hosts the world and
+     *   the player was sent there)
+     * - resolved spawn location safety (returns LOCATION_NOT_SAFE if null or if
+     *   no safe block is found near the spawn)
      * <p>
      * The actual teleport is executed asynchronously using the Bukkit API; the returned
      * future completes with SUCCESS when teleport succeeded or with an appropriate
      * failure {@link TeleportResult}.
      *
      * @param player      the player to teleport (must not be null)
-     * @param targetWorld the enum identifying the target world
+     * @param targetWorld the registry entry identifying the target world
      * @return a CompletableFuture that completes with the teleport result
      */
-    public CompletableFuture<TeleportResult> teleportToWorld(Player player, TeleportTargetWorld targetWorld) {
+    public CompletableFuture<TeleportResult> teleportToWorld(Player player, TargetWorld targetWorld) {
 
         if (player == null || targetWorld == null) {
             return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
         }
 
-        World world = Bukkit.getWorld(targetWorld.getWorldName());
-        if (world == null) {
-            return CompletableFuture.completedFuture(TeleportResult.WORLD_NOT_FOUND);
-        }
+        return tracked(player, targetWorld, () -> startTeleportToWorld(player, targetWorld));
+    }
 
-        Location targetLocation = spawnConfigUtils.getSpawnLocation(world.getName());
-        if (targetLocation == null) {
-            return CompletableFuture.completedFuture(TeleportResult.LOCATION_NOT_SAFE);
-        }
+    private CompletableFuture<TeleportResult> startTeleportToWorld(Player player, TargetWorld targetWorld) {
+        CompletableFuture<TeleportResult> result;
+        if (worldLifecycle.canLoad(targetWorld)) {
+            result = worldLifecycle.load(targetWorld).thenCompose(world -> world == null
+                    ? CompletableFuture.completedFuture(TeleportResult.WORLD_NOT_FOUND)
+                    : teleportToLoadedWorld(player, targetWorld, world));
+        } else {
+            World world = Bukkit.getWorld(targetWorld.worldName());
+            if (world == null) {
+                RoutingTable.Route route = proxyRouter.findRoute(targetWorld.worldName());
+                if (route != null) {
+                    return transfer(player, targetWorld, route);
+                }
 
-        return player.teleportAsync(targetLocation)
-                .thenApply(success -> {
-                    if (success) {
-                        return TeleportResult.SUCCESS;
-                    }
+                return CompletableFuture.completedFuture(TeleportResult.WORLD_NOT_FOUND);
+            }
 
-                    return TeleportResult.GENERIC_FAILURE;
-                })
+            result = teleportToLoadedWorld(player, targetWorld, world);
+        }
+
+        return result
                 .exceptionally(ex -> {
                     logger.log(
                             Level.WARNING,
@@ -76,4 +146,310 @@ public class TeleportService {
                     return TeleportResult.GENERIC_FAILURE;
                 });
     }
+
+    /**
+     * Attempts to teleport a player to a random destination in the requested world.
+     * <p>
+     * Destinations are taken from the world's pool of pre-validated locations,
+     * so only the blocks at the chosen destination are checked again. The method returns GENERIC_FAILURE for null
+     * parameters, WORLD_NOT_FOUND if the world is not loaded,
+     * RANDOM_UNAVAILABLE if random teleports are not configured for it and
+     * NO_RANDOM_LOCATION if its pool is momentarily empty.
+     *
+     * @param player      the player to teleport (must not be null)
+     * @param targetWorld the registry entry identifying the target world
+     * @return a CompletableFuture that completes with the teleport result
+     */
+    public CompletableFuture<TeleportResult> teleportToRandomLocation(Player player, TargetWorld targetWorld) {
+        if (player == null || targetWorld == null) {
+            return CompletableFuture.completedFuture(TeleportResult.GENERIC_FAILURE);
+        }
+
+        return tracked(player, targetWorld, () -> startTeleportToRandomLocation(player, targetWorld));
+    }
+
+    private CompletableFuture<TeleportResult> startTeleportToRandomLocation(Player player, TargetWorld targetWorld) {
+        World world = Bukkit.getWorld(targetWorld.worldName());
+        if (world == null) {
+            return CompletableFuture.completedFuture(TeleportResult.WORLD_NOT_FOUND);
+        }
+
+        if (!randomTeleportService.isAvailable(world)) {
+            return CompletableFuture.completedFuture(TeleportResult.RANDOM_UNAVAILABLE);
+        }
+
+        return randomTeleportService.take(world)
+                .thenCompose(destination -> destination == null
+                        ? CompletableFuture.completedFuture(TeleportResult.NO_RANDOM_LOCATION)
+                        : teleport(player, targetWorld, destination))
+                .exceptionally(ex -> {
+                    logger.log(Level.WARNING, "Failed to teleport player " + player.getName(), ex);
+                    return TeleportResult.GENERIC_FAILURE;
+                });
+    }
+
+    /**
+     * Teleports a group of players to the spawn of the requested world.
+     * <p>
+     * The chunks around every spawn point of the world are loaded and ticketed
+     * for the duration of the batch, and each player lands on the point picked
+     * by the world's spawn strategy. Safety verdicts are cached per point, so
+     * each point is checked once. Teleports are started at most
+     * {@code batch.teleports-per-tick} per tick, so large groups never run in a
+     * single tick.
+     *
+     * @param players     the players to teleport; offline players count as GENERIC_FAILURE
+     * @param targetWorld the registry entry identifying the target world
+     * @return a future completing once every player finished, with a per-result breakdown
+     */
+    public CompletableFuture<BatchTeleportResult> teleportAll(Collection<? extends Player> players, TargetWorld targetWorld) {
+        if (players == null || targetWorld == null) {
+            return CompletableFuture.completedFuture(BatchTeleportResult.uniform(TeleportResult.GENERIC_FAILURE, 0));
+        }
+
+        List<Player> queue = new ArrayList<>(players);
+        if (queue.isEmpty()) {
+            return CompletableFuture.completedFuture(BatchTeleportResult.uniform(TeleportResult.SUCCESS, 0));
+        }
+
+        World world = Bukkit.getWorld(targetWorld.worldName());
+        if (world == null) {
+            return CompletableFuture.completedFuture(BatchTeleportResult.uniform(TeleportResult.WORLD_NOT_FOUND, queue.size()));
+        }
+
+        List<Location> spawns = spawnConfigUtils.getSpawnLocations(world);
+        return preloadAreas(spawns).thenCompose(ignored -> runBatch(queue, targetWorld, world))
+                .whenComplete((result, ex) -> spawns.forEach(this::releaseArea))
+                .exceptionally(ex -> {
+                    logger.log(Level.WARNING, "Failed to teleport batch to world " + targetWorld.worldName(), ex);
+                    return BatchTeleportResult.uniform(TeleportResult.GENERIC_FAILURE, queue.size());
+                });
+    }
+
+    /**
+     * Teleports a player to their return point in a loaded world, or to its
+     * spawn when they have none or it is no longer safe.
+     *
+     * @return a future completing with the teleport result
+     */
+    private CompletableFuture<TeleportResult> teleportToLoadedWorld(Player player, TargetWorld targetWorld, World world) {
+        Location returnLocation = player.getWorld().equals(world)
+                ? null
+                : returnPointStore.getReturnLocation(player, world);
+        if (returnLocation == null) {
+            return teleportToSpawn(player, targetWorld, world);
+        }
+
+        return safetyService.checkPosition(world, returnLocation).thenCompose(safe -> safe
+                ? teleport(player, targetWorld, returnLocation)
+                : teleportToSpawn(player, targetWorld, world));
+    }
+
+    /**
+     * Picks the spawn of a loaded world for a player, checks it is safe and
+     * teleports the player there.
+     *
+     * @return a future completing with the teleport result
+     */
+    private CompletableFuture<TeleportResult> teleportToSpawn(Player player, TargetWorld targetWorld, World world) {
+        Location targetLocation = spawnConfigUtils.selectSpawnLocation(world, player);
+        if (targetLocation == null) {
+            return CompletableFuture.completedFuture(TeleportResult.LOCATION_NOT_SAFE);
+        }
+
+        return safetyService.resolveSafeLocation(world, targetLocation).thenCompose(safeLocation -> {
+            if (safeLocation == null) {
+                return CompletableFuture.completedFuture(TeleportResult.LOCATION_NOT_SAFE);
+            }
+
+            return teleport(player, targetWorld, safeLocation);
+        });
+    }
+
+    /**
+     * Starts a teleport, records its outcome and latency in the journal and
+     * announces it with a {@link WorldLinkTeleportCompleteEvent}. The player's
+     * position is taken before the teleport starts. Nothing is recorded or
+     * created when the journal is disabled and the event has no listeners
+     * when the teleport starts.
+     */
+    private CompletableFuture<TeleportResult> tracked(Player player, TargetWorld targetWorld,
+                                                      Supplier<CompletableFuture<TeleportResult>> teleport) {
+        if (!journal.isEnabled()) {
+            return withCompleteEvent(player, targetWorld, teleport.get());
+        }
+
+        long started = System.nanoTime();
+        UUID playerId = player.getUniqueId();
+        Location from = player.getLocation();
+        CompletableFuture<TeleportResult> result = teleport.get().whenComplete((teleportResult, ex) ->
+                journal.record(playerId, from, targetWorld.worldName(),
+                        ex == null ? teleportResult : TeleportResult.GENERIC_FAILURE, System.nanoTime() - started));
+        return withCompleteEvent(player, targetWorld, result);
+    }
+
+    private CompletableFuture<TeleportResult> withCompleteEvent(Player player, TargetWorld targetWorld,
+                                                                CompletableFuture<TeleportResult> result) {
+        if (!WorldLinkTeleportCompleteEvent.hasListeners()) {
+            return result;
+        }
+
+        return result.whenComplete((teleportResult, ex) -> {
+            if (WorldLinkTeleportCompleteEvent.hasListeners()) {
+                TeleportResult outcome = ex == null ? teleportResult : TeleportResult.GENERIC_FAILURE;
+                scheduler.runForEntity(player, () -> Bukkit.getPluginManager().callEvent(
+                        new WorldLinkTeleportCompleteEvent(player, targetWorld, outcome)), null);
+            }
+        });
+    }
+
+    /**
+     * Teleports a player on their own thread, after giving the listeners of
+     * {@link WorldLinkPreTeleportEvent}, if any, the chance to cancel it or to
+     * change the destination.
+     */
+    private CompletableFuture<TeleportResult> teleport(Player player, TargetWorld targetWorld, Location destination) {
+        CompletableFuture<TeleportResult> result = new CompletableFuture<>();
+
+        scheduler.runForEntity(player, () -> {
+            Location finalDestination = destination;
+            if (WorldLinkPreTeleportEvent.hasListeners()) {
+                WorldLinkPreTeleportEvent event = new WorldLinkPreTeleportEvent(player, targetWorld, destination);
+                if (!event.callEvent()) {
+                    result.complete(TeleportResult.CANCELLED);
+                    return;
+                }
+                finalDestination = event.getDestination();
+            }
+
+            player.teleportAsync(finalDestination).whenComplete((success, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(success ? TeleportResult.SUCCESS : TeleportResult.GENERIC_FAILURE);
+                }
+            });
+        }, () -> result.complete(TeleportResult.GENERIC_FAILURE));
+
+        return result;
+    }
+
+    /**
+     * Sends a player to another backend from their own thread, after giving
+     * the listeners of {@link WorldLinkPreTeleportEvent}, if any, the chance
+     * to cancel it. There is no local destination to change.
+     */
+    private CompletableFuture<TeleportResult> transfer(Player player, TargetWorld targetWorld, RoutingTable.Route route) {
+        CompletableFuture<TeleportResult> result = new CompletableFuture<>();
+
+        scheduler.runForEntity(player, () -> {
+            if (WorldLinkPreTeleportEvent.hasListeners()
+                    && !new WorldLinkPreTeleportEvent(player, targetWorld, null).callEvent()) {
+                result.complete(TeleportResult.CANCELLED);
+                return;
+            }
+
+            proxyRouter.transfer(player, route).whenComplete((transferred, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(transferred);
+                }
+            });
+        }, () -> result.complete(TeleportResult.GENERIC_FAILURE));
+
+        return result;
+    }
+
+    private CompletableFuture<Void> preloadAreas(List<Location> destinations) {
+        List<CompletableFuture<?>> loads = new ArrayList<>(9 * destinations.size());
+        for (Location destination : destinations) {
+            World world = destination.getWorld();
+            int centerX = destination.getBlockX() >> 4;
+            int centerZ = destination.getBlockZ() >> 4;
+
+            for (int x = centerX - 1; x <= centerX + 1; x++) {
+                for (int z = centerZ - 1; z <= centerZ + 1; z++) {
+                    loads.add(chunkTickets.acquire(world, x, z));
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+    }
+
+    private void releaseArea(Location destination) {
+        World world = destination.getWorld();
+        int centerX = destination.getBlockX() >> 4;
+        int centerZ = destination.getBlockZ() >> 4;
+
+        for (int x = centerX - 1; x <= centerX + 1; x++) {
+            for (int z = centerZ - 1; z <= centerZ + 1; z++) {
+                chunkTickets.release(world, x, z);
+            }
+        }
+    }
+
+    private CompletableFuture<BatchTeleportResult> runBatch(List<Player> players, TargetWorld targetWorld, World world) {
+        int perTick = Math.max(1, config.getInt("batch.teleports-per-tick", 10));
+        Batch batch = new Batch(new ArrayDeque<>(players), targetWorld, world, perTick);
+        batch.task = scheduler.runGlobalTimer(batch, 1L, 1L);
+        return batch.result;
+    }
+
+    /**
+     * Repeating global task starting the teleports of one batch, a few per
+     * tick. Each teleport is handed to the player's own thread, and a player
+     * removed before it runs counts as GENERIC_FAILURE.
+     */
+    private final class Batch implements Runnable {
+        private final ArrayDeque<Player> remaining;
+        private final TargetWorld targetWorld;
+        private final World world;
+        private final int perTick;
+        private final int total;
+        private final Map<TeleportResult, Integer> counts = new EnumMap<>(TeleportResult.class);
+        private final CompletableFuture<BatchTeleportResult> result = new CompletableFuture<>();
+        private volatile TaskScheduler.Task task;
+        private int finished;
+
+        private Batch(ArrayDeque<Player> remaining, TargetWorld targetWorld, World world, int perTick) {
+            this.remaining = remaining;
+            this.targetWorld = targetWorld;
+            this.world = world;
+            this.perTick = perTick;
+            this.total = remaining.size();
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < perTick && !remaining.isEmpty(); i++) {
+                Player player = remaining.poll();
+                // This task only paces the batch; each player is handled on their own thread.
+                scheduler.runForEntity(player, () -> {
+                    if (!player.isOnline()) {
+                        finish(TeleportResult.GENERIC_FAILURE);
+                        return;
+                    }
+
+                    tracked(player, targetWorld, () -> teleportToSpawn(player, targetWorld, world))
+                            .exceptionally(ex -> TeleportResult.GENERIC_FAILURE)
+                            .thenAccept(this::finish);
+                }, () -> finish(TeleportResult.GENERIC_FAILURE));
+            }
+
+            if (remaining.isEmpty() && task != null) {
+                task.cancel();
+            }
+        }
+
+        private void finish(TeleportResult teleportResult) {
+            synchronized (counts) {
+                counts.merge(teleportResult, 1, Integer::sum);
+                if (++finished == total) {
+                    result.complete(new BatchTeleportResult(counts));
+                }
+            }
+        }
+    }
 }
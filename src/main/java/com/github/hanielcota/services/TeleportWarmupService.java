@@ -0,0 +1,279 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.enums.TeleportResult;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigSnapshot;
+import com.github.hanielcota.utils.ConfigUtils;
+import com.github.hanielcota.utils.MessageKey;
+import com.github.hanielcota.utils.MessageService;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Countdown that runs before a player-initiated teleport.
+ * <p>
+ * Every pending warmup is driven by one shared repeating task on the global
+ * region and a hashed timer wheel: an entry sits in the wheel slot of the tick it is next due
+ * (a countdown message or the end of the warmup), so a tick only touches the
+ * entries due in it, no matter how many players are waiting. The task is
+ * started with the first warmup and stops once none are left.
+ * <p>
+ * Movement is not polled; the listeners report block changes and damage, and
+ * a warmup is cancelled when the player leaves the block it started in. The
+ * cancel flags are read once per configuration snapshot, not per event. The
+ * warmup length is {@code warmup.seconds}, overridable per world with the
+ * {@code warmup-seconds} option of a {@code worlds.entries} entry.
+ * <p>
+ * Methods may be called from any region thread and are serialized by a lock.
+ * Returned futures complete on the thread that finished the warmup; callers
+ * hop back to the player's thread through the {@link TaskScheduler}.
+ */
+public class TeleportWarmupService {
+
+    private static final String CONFIG_PATH = "warmup";
+    private static final String BYPASS_PERMISSION = "worldlink.bypass.warmup";
+    private static final String WARMUP_OPTION = "warmup-seconds";
+    private static final MessageKey WARMUP_MESSAGE = MessageKey.of("warmup");
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
+    private final MessageService messageService;
+
+    private final Map<UUID, Warmup> active = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Warmup>[] wheel = new ArrayDeque[WHEEL_SIZE];
+
+    private long currentTick;
+    private Settings settings;
+    private TaskScheduler.Task task;
+
+    public TeleportWarmupService(TaskScheduler scheduler, ConfigUtils config, MessageService messageService) {
+        this.scheduler = scheduler;
+        this.config = config;
+        this.messageService = messageService;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Starts the warmup of a teleport request. A warmup the player already had
+     * is cancelled and replaced.
+     *
+     * @param player the player
+     * @param target the target world
+     * @return a future completed with {@link TeleportResult#SUCCESS} when the
+     * teleport may proceed, or {@link TeleportResult#CANCELLED}
+     */
+    public synchronized CompletableFuture<TeleportResult> warmup(Player player, TargetWorld target) {
+        int seconds = warmupSeconds(target);
+        if (seconds <= 0 || player.hasPermission(BYPASS_PERMISSION)) {
+            return CompletableFuture.completedFuture(TeleportResult.SUCCESS);
+        }
+
+        Warmup previous = active.remove(player.getUniqueId());
+        if (previous != null) {
+            previous.finish(TeleportResult.CANCELLED);
+        }
+
+        Location location = player.getLocation();
+        Warmup warmup = new Warmup(player, target, location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                seconds, new CompletableFuture<>());
+        active.put(player.getUniqueId(), warmup);
+
+        sendCountdown(warmup);
+        schedule(warmup, TICKS_PER_SECOND);
+        start();
+
+        return warmup.future;
+    }
+
+    /**
+     * Cancels the warmup of a player who moved to another block.
+     *
+     * @param player the player
+     * @param blockX the new block x
+     * @param blockY the new block y
+     * @param blockZ the new block z
+     */
+    public synchronized void onMove(Player player, int blockX, int blockY, int blockZ) {
+        if (active.isEmpty() || !settings().cancelOnMove) {
+            return;
+        }
+
+        Warmup warmup = active.get(player.getUniqueId());
+        if (warmup != null && (warmup.blockX != blockX || warmup.blockY != blockY || warmup.blockZ != blockZ)) {
+            cancel(player);
+        }
+    }
+
+    /**
+     * Cancels the warmup of a player who took damage.
+     *
+     * @param player the player
+     */
+    public synchronized void onDamage(Player player) {
+        if (!active.isEmpty() && settings().cancelOnDamage) {
+            cancel(player);
+        }
+    }
+
+    /**
+     * Cancels the warmup of a player, if any.
+     *
+     * @param player the player
+     */
+    public synchronized void cancel(Player player) {
+        if (active.isEmpty()) {
+            return;
+        }
+
+        Warmup warmup = active.remove(player.getUniqueId());
+        if (warmup != null) {
+            warmup.finish(TeleportResult.CANCELLED);
+        }
+    }
+
+    /**
+     * Stops the shared task and cancels every pending warmup.
+     */
+    public synchronized void shutdown() {
+        stop();
+        for (Warmup warmup : active.values()) {
+            warmup.finish(TeleportResult.CANCELLED);
+        }
+        active.clear();
+    }
+
+    private void start() {
+        if (task == null) {
+            task = scheduler.runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+
+    private void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (ArrayDeque<Warmup> slot : wheel) {
+            slot.clear();
+        }
+    }
+
+    private synchronized void tick() {
+        currentTick++;
+        ArrayDeque<Warmup> slot = wheel[(int) (currentTick & WHEEL_MASK)];
+
+        for (int remaining = slot.size(); remaining > 0; remaining--) {
+            Warmup warmup = slot.pollFirst();
+            if (warmup.done) {
+                continue;
+            }
+            if (warmup.dueTick != currentTick) {
+                slot.addLast(warmup);
+                continue;
+            }
+
+            warmup.secondsLeft--;
+            if (warmup.secondsLeft > 0) {
+                sendCountdown(warmup);
+                schedule(warmup, TICKS_PER_SECOND);
+                continue;
+            }
+
+            active.remove(warmup.player.getUniqueId(), warmup);
+            warmup.finish(TeleportResult.SUCCESS);
+        }
+
+        if (active.isEmpty()) {
+            stop();
+        }
+    }
+
+    private void schedule(Warmup warmup, int delayTicks) {
+        warmup.dueTick = currentTick + delayTicks;
+        wheel[(int) (warmup.dueTick & WHEEL_MASK)].addLast(warmup);
+    }
+
+    private void sendCountdown(Warmup warmup) {
+        messageService.send(warmup.player, WARMUP_MESSAGE, Map.of(
+                "world", warmup.target.displayName(),
+                "seconds", Integer.toString(warmup.secondsLeft)
+        ));
+    }
+
+    private Settings settings() {
+        ConfigSnapshot snapshot = config.getSnapshot();
+        Settings current = settings;
+        if (current == null || current.source != snapshot) {
+            current = new Settings(snapshot);
+            settings = current;
+        }
+        return current;
+    }
+
+    private int warmupSeconds(TargetWorld target) {
+        if (target.getOption(WARMUP_OPTION, null) instanceof Number seconds) {
+            return seconds.intValue();
+        }
+        return config.getInt(CONFIG_PATH + ".seconds", 0);
+    }
+
+    /**
+     * Cancel flags read from one configuration snapshot.
+     */
+    private static final class Settings {
+        private final ConfigSnapshot source;
+        private final boolean cancelOnMove;
+        private final boolean cancelOnDamage;
+
+        private Settings(ConfigSnapshot source) {
+            this.source = source;
+            this.cancelOnMove = source.config().getBoolean(CONFIG_PATH + ".cancel-on-move", false);
+            this.cancelOnDamage = source.config().getBoolean(CONFIG_PATH + ".cancel-on-damage", false);
+        }
+    }
+
+    /**
+     * A pending warmup. The block coordinates are where the player stood when it started.
+     */
+    private static final class Warmup {
+        private final Player player;
+        private final TargetWorld target;
+        private final int blockX;
+        private final int blockY;
+        private final int blockZ;
+        private final CompletableFuture<TeleportResult> future;
+        private int secondsLeft;
+        private long dueTick;
+        private boolean done;
+
+        private Warmup(Player player, TargetWorld target, int blockX, int blockY, int blockZ,
+                       int seconds, CompletableFuture<TeleportResult> future) {
+            this.player = player;
+            this.target = target;
+            this.blockX = blockX;
+            this.blockY = blockY;
+            this.blockZ = blockZ;
+            this.secondsLeft = seconds;
+            this.future = future;
+        }
+
+        private void finish(TeleportResult result) {
+            done = true;
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.scheduler.TaskScheduler;
+import com.github.hanielcota.utils.ConfigSnapshot;
+import com.github.hanielcota.utils.ConfigUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Loads configured worlds when a player first needs them and unloads them
+ * again once they stay empty.
+ * <p>
+ * Worlds whose {@code worlds.entries} entry sets the {@code load-on-demand}
+ * option are managed. {@link #load} loads or creates such a world on the global
+ * region; concurrent requests for the same world share one future, so a world
+ * is loaded once however many players are waiting for it.
+ * <p>
+ * A repeating task unloads (and saves) managed worlds that had no players and
+ * no teleport requests for {@code world-lifecycle.unload-after-seconds}. To
+ * avoid thrashing, a world that is needed again shortly after being unloaded
+ * has its idle time doubled, up to {@code max-unload-after-seconds}; it goes
+ * back down one step each time the world stays unloaded longer than its idle
+ * time. Every load and unload is logged with the number of loaded worlds and
+ * the used heap before and after.
+ * <p>
+ * Folia cannot load or unload worlds at runtime, so the service stays
+ * inactive there and on-demand worlds must be loaded at startup.
+ */
+public class WorldLifecycleService {
+
+    private static final String CONFIG_PATH = "world-lifecycle";
+    private static final String LOAD_OPTION = "load-on-demand";
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final ConfigUtils config;
+    private final boolean supported = !TaskScheduler.isFolia();
+
+    private final Map<String, CompletableFuture<World>> loading = new ConcurrentHashMap<>();
+    private final Map<String, ManagedWorld> managed = new ConcurrentHashMap<>();
+
+    private TaskScheduler.Task task;
+
+    public WorldLifecycleService(JavaPlugin plugin, TaskScheduler scheduler, ConfigUtils config) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.config = config;
+    }
+
+    /**
+     * Starts the idle check.
+     */
+    public void start() {
+        if (!supported) {
+            if (config.getBoolean(CONFIG_PATH + ".enabled")) {
+                plugin.getLogger().warning("World lifecycle management is not supported on Folia; "
+                        + "worlds are neither loaded on demand nor unloaded when idle.");
+            }
+            return;
+        }
+
+        if (task == null) {
+            long interval = Math.max(1, config.getInt(CONFIG_PATH + ".check-interval-seconds", 30)) * 20L;
+            task = scheduler.runGlobalTimer(this::unloadIdleWorlds, interval, interval);
+        }
+    }
+
+    /**
+     * Stops the idle check. Worlds are left loaded; the server saves them on shutdown.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @param target the target world
+     * @return whether the world is loaded on demand when it is not loaded
+     */
+    public boolean canLoad(TargetWorld target) {
+        return supported && config.getBoolean(CONFIG_PATH + ".enabled") && isOnDemand(target.options());
+    }
+
+    /**
+     * Returns the target world, loading or creating it if needed.
+     *
+     * @param target the target world
+     * @return a future completing on the global region with the world, or with
+     * {@code null} if its folder does not exist and {@code create-missing} is off
+     */
+    public CompletableFuture<World> load(TargetWorld target) {
+        String worldName = target.worldName();
+        World world = Bukkit.getWorld(worldName);
+        if (world != null) {
+            state(worldName).touch();
+            return CompletableFuture.completedFuture(world);
+        }
+
+        CompletableFuture<World> created = new CompletableFuture<>();
+        CompletableFuture<World> existing = loading.putIfAbsent(worldName, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        created.whenComplete((loaded, ex) -> loading.remove(worldName, created));
+        scheduler.runGlobal(() -> {
+            try {
+                created.complete(loadNow(target));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * @return the state of every world loaded or unloaded by this service, by world name
+     */
+    public Map<String, WorldStats> getStats() {
+        Map<String, WorldStats> stats = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        for (Map.Entry<String, ManagedWorld> entry : managed.entrySet()) {
+            ManagedWorld state = entry.getValue();
+            synchronized (state) {
+                stats.put(entry.getKey(), new WorldStats(
+                        Bukkit.getWorld(entry.getKey()) != null,
+                        TimeUnit.NANOSECONDS.toSeconds(now - state.lastActive),
+                        idleLimitSeconds(state),
+                        state.loads,
+                        state.unloads
+                ));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @return the number of worlds loaded on the server
+     */
+    public int getLoadedWorldCount() {
+        return Bukkit.getWorlds().size();
+    }
+
+    /**
+     * @return the used heap, in megabytes
+     */
+    public long getUsedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / MEGABYTE;
+    }
+
+    private World loadNow(TargetWorld target) {
+        String worldName = target.worldName();
+        World world = Bukkit.getWorld(worldName);
+        if (world != null) {
+            state(worldName).touch();
+            return world;
+        }
+
+        boolean exists = Files.isDirectory(Bukkit.getWorldContainer().toPath().resolve(worldName));
+        if (!exists && !config.getBoolean(CONFIG_PATH + ".create-missing")) {
+            return null;
+        }
+
+        int worldsBefore = getLoadedWorldCount();
+        long heapBefore = getUsedHeapMegabytes();
+        long started = System.nanoTime();
+
+        world = creator(target).createWorld();
+        if (world == null) {
+            throw new IllegalStateException("The server refused to load world '" + worldName + "'");
+        }
+
+        ManagedWorld state = state(worldName);
+        synchronized (state) {
+            state.onLoad(baseIdleNanos(), maxIdleNanos());
+        }
+
+        plugin.getLogger().info(String.format(Locale.ROOT,
+                "%s world '%s' on demand in %d ms (loaded worlds: %d -> %d, heap used: %d MB -> %d MB)",
+                exists ? "Loaded" : "Created", worldName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                worldsBefore, getLoadedWorldCount(), heapBefore, getUsedHeapMegabytes()));
+        return world;
+    }
+
+    private static WorldCreator creator(TargetWorld target) {
+        WorldCreator creator = new WorldCreator(target.worldName());
+
+        Object environment = target.getOption("environment", null);
+        if (environment != null) {
+            try {
+                creator.environment(World.Environment.valueOf(environment.toString().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown environment '" + environment + "' for world '"
+                        + target.worldName() + "'");
+            }
+        }
+
+        Object generator = target.getOption("generator", null);
+        if (generator != null) {
+            creator.generator(generator.toString());
+        }
+        return creator;
+    }
+
+    private void unloadIdleWorlds() {
+        if (!config.getBoolean(CONFIG_PATH + ".enabled")) {
+            return;
+        }
+
+        List<World> worlds = Bukkit.getWorlds();
+        World mainWorld = worlds.isEmpty() ? null : worlds.get(0);
+        long now = System.nanoTime();
+
+        for (ConfigSnapshot.WorldEntry entry : config.getSnapshot().worldEntries()) {
+            if (!isOnDemand(entry.options()) || loading.containsKey(entry.worldName())) {
+                continue;
+            }
+
+            World world = Bukkit.getWorld(entry.worldName());
+            if (world == null || world.equals(mainWorld)) {
+                continue;
+            }
+
+            ManagedWorld state = state(entry.worldName());
+            synchronized (state) {
+                if (!world.getPlayers().isEmpty()) {
+                    state.lastActive = now;
+                    continue;
+                }
+                if (now - state.lastActive < state.idleNanos(baseIdleNanos(), maxIdleNanos())) {
+                    continue;
+                }
+            }
+
+            unload(world, state);
+        }
+    }
+
+    private void unload(World world, ManagedWorld state) {
+        int worldsBefore = getLoadedWorldCount();
+        long heapBefore = getUsedHeapMegabytes();
+        long idleSeconds;
+        synchronized (state) {
+            idleSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - state.lastActive);
+        }
+
+        boolean unloaded;
+        try {
+            unloaded = Bukkit.unloadWorld(world, true);
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not unload idle world '" + world.getName() + "'", e);
+            return;
+        }
+
+        if (!unloaded) {
+            return;
+        }
+
+        synchronized (state) {
+            state.onUnload();
+        }
+
+        plugin.getLogger().info(String.format(Locale.ROOT,
+                "Unloaded world '%s' after %d s without players (loaded worlds: %d -> %d, heap used: %d MB -> %d MB)",
+                world.getName(), idleSeconds, worldsBefore, getLoadedWorldCount(), heapBefore, getUsedHeapMegabytes()));
+    }
+
+    private ManagedWorld state(String worldName) {
+        return managed.computeIfAbsent(worldName, name -> new ManagedWorld());
+    }
+
+    private long idleLimitSeconds(ManagedWorld state) {
+        return TimeUnit.NANOSECONDS.toSeconds(state.idleNanos(baseIdleNanos(), maxIdleNanos()));
+    }
+
+    private long baseIdleNanos() {
+        return TimeUnit.SECONDS.toNanos(Math.max(1, config.getInt(CONFIG_PATH + ".unload-after-seconds", 300)));
+    }
+
+    private long maxIdleNanos() {
+        return Math.max(baseIdleNanos(), TimeUnit.SECONDS.toNanos(config.getInt(CONFIG_PATH + ".max-unload-after-seconds", 3600)));
+    }
+
+    private static boolean isOnDemand(Map<String, Object> options) {
+        return Boolean.parseBoolean(String.valueOf(options.get(LOAD_OPTION)));
+    }
+
+    /**
+     * Snapshot of one managed world.
+     *
+     * @param loaded           whether the world is loaded right now
+     * @param idleSeconds      seconds since the world last had players or was requested
+     * @param idleLimitSeconds idle time after which the world is unloaded
+     * @param loads            times the world was loaded on demand
+     * @param unloads          times the world was unloaded for being idle
+     */
+    public record WorldStats(boolean loaded, long idleSeconds, long idleLimitSeconds, int loads, int unloads) {
+    }
+
+    /**
+     * Activity and backoff of one world. Guarded by its own monitor.
+     */
+    private static final class ManagedWorld {
+        private long lastActive = System.nanoTime();
+        private long unloadedAt;
+        private boolean wasUnloaded;
+        private int backoff;
+        private int loads;
+        private int unloads;
+
+        synchronized void touch() {
+            lastActive = System.nanoTime();
+        }
+
+        long idleNanos(long base, long max) {
+            long idle = base << Math.min(backoff, 20);
+            return idle <= 0 || idle > max ? max : idle;
+        }
+
+        void onLoad(long base, long max) {
+            long now = System.nanoTime();
+            if (wasUnloaded) {
+                // Needed again before its idle time passed: keep it loaded longer next time.
+                if (now - unloadedAt < idleNanos(base, max)) {
+                    if (idleNanos(base, max) < max) {
+                        backoff++;
+                    }
+                } else if (backoff > 0) {
+                    backoff--;
+                }
+            }
+            lastActive = now;
+            loads++;
+        }
+
+        void onUnload() {
+            unloadedAt = System.nanoTime();
+            wasUnloaded = true;
+            unloads++;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.hanielcota.services;
+
+import com.github.hanielcota.enums.TeleportTargetWorld;
+import com.github.hanielcota.models.TargetWorld;
+import com.github.hanielcota.utils.ConfigSnapshot;
+import com.github.hanielcota.utils.ConfigUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runtime registry of the worlds players can teleport to.
+ * <p>
+ * Entries come from four sources, in increasing priority: worlds hosted on
+ * other backends (see {@link com.github.hanielcota.proxy.ProxyRouter}), every
+ * loaded world (when {@code worlds.auto-register} is enabled), the built-in
+ * {@link TeleportTargetWorld} constants, and the {@code worlds.entries} section
+ * of the configuration, which adds aliases, permissions and options.
+ * <p>
+ * Names and aliases are normalized to lower case once when the registry is
+ * built, so {@link #resolve(String)} is a single hash lookup. The registry and
+ * the tab completion list are rebuilt as immutable snapshots from the current
+ * {@link ConfigSnapshot} on reload and whenever a world loads or unloads.
+ */
+public class WorldRegistry {
+
+    private final ConfigUtils config;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+    private volatile Set<String> remoteWorlds = Set.of();
+
+    public WorldRegistry(ConfigUtils config) {
+        this.config = config;
+        reload();
+    }
+
+    /**
+     * Rebuilds the registry from the configuration and the currently loaded worlds.
+     */
+    public void reload() {
+        rebuild(null);
+    }
+
+    /**
+     * Rebuilds the registry after a world was loaded.
+     *
+     * @param world the loaded world
+     */
+    public void onWorldLoad(World world) {
+        rebuild(null);
+    }
+
+    /**
+     * Rebuilds the registry without a world that is being unloaded.
+     *
+     * @param world the world being unloaded
+     */
+    public void onWorldUnload(World world) {
+        rebuild(world.getName());
+    }
+
+    /**
+     * Replaces the worlds known to be hosted on other backends and rebuilds the registry.
+     *
+     * @param worldNames the remote world names
+     */
+    public void updateRemoteWorlds(Set<String> worldNames) {
+        this.remoteWorlds = Set.copyOf(worldNames);
+        rebuild(null);
+    }
+
+    private synchronized void rebuild(String unloadingWorld) {
+        ConfigSnapshot settings = config.getSnapshot();
+        Map<String, TargetWorld> entries = new LinkedHashMap<>();
+
+        for (String remote : remoteWorlds) {
+            entries.put(remote, TargetWorld.of(remote));
+        }
+
+        if (settings.autoRegisterWorlds()) {
+            for (World world : Bukkit.getWorlds()) {
+                if (!world.getName().equals(unloadingWorld)) {
+                    entries.put(world.getName(), TargetWorld.of(world.getName()));
+                }
+            }
+        }
+
+        for (TeleportTargetWorld builtIn : TeleportTargetWorld.values()) {
+            TargetWorld existing = entries.get(builtIn.getWorldName());
+            List<String> aliases = new ArrayList<>(existing != null ? existing.aliases() : List.of());
+            aliases.add(builtIn.name());
+            entries.put(builtIn.getWorldName(), new TargetWorld(
+                    builtIn.getWorldName(), builtIn.name(), aliases, "", Map.of()
+            ));
+        }
+
+        for (ConfigSnapshot.WorldEntry entry : settings.worldEntries()) {
+            TargetWorld existing = entries.get(entry.worldName());
+            List<String> aliases = new ArrayList<>(existing != null ? existing.aliases() : List.of());
+            aliases.addAll(entry.aliases());
+
+            String displayName = entry.displayName();
+            if (displayName == null) {
+                displayName = existing != null ? existing.displayName() : entry.worldName();
+            }
+
+            entries.put(entry.worldName(), new TargetWorld(
+                    entry.worldName(), displayName, aliases, entry.permission(), entry.options()
+            ));
+        }
+
+        Map<String, TargetWorld> byKey = new HashMap<>();
+        TreeSet<String> completions = new TreeSet<>();
+
+        // World names take precedence over aliases on collisions.
+        for (TargetWorld target : entries.values()) {
+            for (String alias : target.aliases()) {
+                String key = normalize(alias);
+                byKey.putIfAbsent(key, target);
+                completions.add(key);
+            }
+        }
+        for (TargetWorld target : entries.values()) {
+            String key = normalize(target.worldName());
+            byKey.put(key, target);
+            completions.add(target.worldName());
+        }
+
+        this.snapshot = new Snapshot(Map.copyOf(byKey), List.copyOf(completions));
+    }
+
+    /**
+     * Resolves a world by name or alias, ignoring case.
+     *
+     * @param input the world name or alias typed by a player
+     * @return the matching entry or {@code null} when unknown
+     */
+    public TargetWorld resolve(String input) {
+        if (input == null) {
+            return null;
+        }
+        return snapshot.byKey().get(normalize(input));
+    }
+
+    /**
+     * Resolves the registry entry of a built-in target.
+     *
+     * @param builtIn the built-in constant
+     * @return the registry entry, never {@code null}
+     */
+    public TargetWorld resolve(TeleportTargetWorld builtIn) {
+        TargetWorld target = resolve(builtIn.getWorldName());
+        return target != null ? target : TargetWorld.of(builtIn.getWorldName());
+    }
+
+    /**
+     * @return an immutable, sorted list of names and aliases for tab completion
+     */
+    public List<String> getCompletions() {
+        return snapshot.completions();
+    }
+
+    private static String normalize(String input) {
+        return input.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<String, TargetWorld> byKey, List<String> completions) {
+    }
+}
@@ -0,0 +1,329 @@
+package com.github.hanielcota.utils;
+
+import com.github.hanielcota.models.SpawnRecord;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable view of one loaded version of the configuration.
+ * <p>
+ * Besides the raw {@link FileConfiguration}, a snapshot carries everything the
+ * hot paths need already parsed: spawn points, compiled message templates and
+ * the {@code worlds} section. {@link ConfigUtils} publishes snapshots through a
+ * single volatile field, so a reader either sees a complete old version or a
+ * complete new one. The raw configuration of a published snapshot is never
+ * changed, so it can be read from any thread; derived snapshots get their own
+ * copy.
+ *
+ * @param config             the raw configuration, with defaults applied
+ * @param spawns             spawn records keyed by world UUID
+ * @param legacySpawns       legacy spawn entries not migrated yet, keyed by world name
+ * @param messages           compiled {@code messages} templates keyed by message id
+ * @param autoRegisterWorlds value of {@code worlds.auto-register}
+ * @param worldEntries       parsed {@code worlds.entries}, in configuration order
+ */
+public record ConfigSnapshot(FileConfiguration config, Map<UUID, SpawnRecord> spawns,
+                             Map<String, SpawnRecord> legacySpawns, Map<String, MessageTemplate> messages,
+                             boolean autoRegisterWorlds, List<WorldEntry> worldEntries) {
+
+    private static final String SPAWNS_PATH = "spawns";
+    private static final String MESSAGES_PATH = "messages";
+    private static final String WORLDS_PATH = "worlds";
+
+    public ConfigSnapshot {
+        spawns = Map.copyOf(spawns);
+        legacySpawns = Map.copyOf(legacySpawns);
+        messages = Map.copyOf(messages);
+        worldEntries = List.copyOf(worldEntries);
+    }
+
+    /**
+     * Parses every section covered by a snapshot.
+     * <p>
+     * Invalid entries are skipped and described in {@code errors}; the caller
+     * decides whether they are fatal.
+     *
+     * @param config the loaded configuration
+     * @param errors receives one message per invalid entry
+     * @return the parsed snapshot
+     */
+    public static ConfigSnapshot parse(FileConfiguration config, List<String> errors) {
+        return parse(config, null, errors);
+    }
+
+    /**
+     * Parses every section covered by a snapshot, reusing the legacy spawn
+     * entries and compiled templates of {@code previous} whose raw value did
+     * not change, so only edited strings are parsed again. Spawn records are
+     * read field by field and are always read.
+     *
+     * @param config   the loaded configuration
+     * @param previous the snapshot being replaced, or {@code null}
+     * @param errors   receives one message per invalid entry
+     * @return the parsed snapshot
+     */
+    public static ConfigSnapshot parse(FileConfiguration config, ConfigSnapshot previous, List<String> errors) {
+        Map<UUID, SpawnRecord> spawns = new HashMap<>();
+        Map<String, SpawnRecord> legacySpawns = new HashMap<>();
+        parseSpawns(config, previous, spawns, legacySpawns, errors);
+
+        return new ConfigSnapshot(
+                config,
+                spawns,
+                legacySpawns,
+                parseMessages(config, previous, errors),
+                config.getBoolean(WORLDS_PATH + ".auto-register", true),
+                parseWorldEntries(config, errors)
+        );
+    }
+
+    /**
+     * Finds the spawn of a world: the record keyed by its UUID or, failing
+     * that, a legacy entry keyed by its name.
+     *
+     * @param worldId   the world UUID
+     * @param worldName the world name
+     * @return the spawn record, or {@code null} when none is configured
+     */
+    public SpawnRecord findSpawn(UUID worldId, String worldName) {
+        SpawnRecord spawn = spawns.get(worldId);
+        return spawn != null ? spawn : legacySpawns.get(worldName);
+    }
+
+    /**
+     * Returns a copy of this snapshot with the spawn of one world replaced.
+     * The record is also written, in the current format, to a copy of the
+     * configuration held by the new snapshot, so it is persisted by the next
+     * save; a legacy entry for the same world name is removed. This snapshot
+     * and its configuration are left untouched.
+     *
+     * @param spawn the new spawn record; it must have a world UUID
+     * @return the updated snapshot
+     */
+    public ConfigSnapshot withSpawn(SpawnRecord spawn) {
+        return withSpawns(List.of(spawn));
+    }
+
+    /**
+     * Returns a copy of this snapshot with the spawns of several worlds
+     * replaced, copying the configuration once.
+     *
+     * @param replaced the new spawn records; each must have a world UUID
+     * @return the updated snapshot
+     * @see #withSpawn(SpawnRecord)
+     */
+    public ConfigSnapshot withSpawns(Collection<SpawnRecord> replaced) {
+        for (SpawnRecord spawn : replaced) {
+            if (spawn.isLegacy()) {
+                throw new IllegalArgumentException("Spawn record must have a world UUID");
+            }
+        }
+
+        FileConfiguration copy = ConfigUtils.copyOf(config);
+        Map<UUID, SpawnRecord> updated = new HashMap<>(spawns);
+        Map<String, SpawnRecord> legacy = new HashMap<>(legacySpawns);
+        for (SpawnRecord spawn : replaced) {
+            copy.createSection(SPAWNS_PATH + "." + spawn.worldId(), SpawnCodec.write(spawn));
+            if (legacy.remove(spawn.worldName()) != null) {
+                copy.set(SPAWNS_PATH + "." + spawn.worldName(), null);
+            }
+            updated.put(spawn.worldId(), spawn);
+        }
+
+        return new ConfigSnapshot(copy, updated, legacy, messages, autoRegisterWorlds, worldEntries);
+    }
+
+    /**
+     * Lists the {@code spawns.*} and {@code messages.*} entries that differ
+     * from another snapshot, e.g. for logging what a reload changed.
+     *
+     * @param previous the snapshot to compare against
+     * @return the changed configuration paths
+     */
+    public List<String> changedEntries(ConfigSnapshot previous) {
+        List<String> changed = new ArrayList<>();
+
+        Set<UUID> spawnKeys = new LinkedHashSet<>(previous.spawns.keySet());
+        spawnKeys.addAll(spawns.keySet());
+        for (UUID key : spawnKeys) {
+            if (!Objects.equals(spawns.get(key), previous.spawns.get(key))) {
+                changed.add(SPAWNS_PATH + "." + key);
+            }
+        }
+
+        Set<String> legacyKeys = new LinkedHashSet<>(previous.legacySpawns.keySet());
+        legacyKeys.addAll(legacySpawns.keySet());
+        for (String key : legacyKeys) {
+            if (!Objects.equals(legacySpawns.get(key), previous.legacySpawns.get(key))) {
+                changed.add(SPAWNS_PATH + "." + key);
+            }
+        }
+
+        Set<String> messageKeys = new LinkedHashSet<>(previous.messages.keySet());
+        messageKeys.addAll(messages.keySet());
+        for (String key : messageKeys) {
+            MessageTemplate current = messages.get(key);
+            MessageTemplate old = previous.messages.get(key);
+            if (current == null || old == null || !current.getSource().equals(old.getSource())) {
+                changed.add(MESSAGES_PATH + "." + key);
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Tells whether any value under a configuration section differs from
+     * another snapshot.
+     *
+     * @param previous the snapshot to compare against
+     * @param path     the section path, e.g. {@code chunk-warmup}
+     * @return whether a value under the section was added, removed or changed
+     */
+    public boolean sectionChanged(ConfigSnapshot previous, String path) {
+        return !leafValues(config, path).equals(leafValues(previous.config, path));
+    }
+
+    private static Map<String, Object> leafValues(Configuration config, String path) {
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section == null) {
+            return config.isSet(path) ? Map.of("", config.get(path)) : Map.of();
+        }
+
+        // Nested sections compare by identity, so only their leaf values are collected.
+        Map<String, Object> values = new HashMap<>();
+        for (String key : section.getKeys(true)) {
+            Object value = section.get(key);
+            if (!(value instanceof ConfigurationSection)) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    private static void parseSpawns(FileConfiguration config, ConfigSnapshot previous, Map<UUID, SpawnRecord> spawns,
+                                    Map<String, SpawnRecord> legacySpawns, List<String> errors) {
+        ConfigurationSection section = config.getConfigurationSection(SPAWNS_PATH);
+        if (section == null) {
+            return;
+        }
+
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            if (value == null || value instanceof String raw && raw.isBlank()) {
+                continue;
+            }
+
+            if (previous != null && value instanceof String raw) {
+                SpawnRecord unchanged = previous.legacySpawns.get(key);
+                if (unchanged != null && raw.equals(previous.config.getString(SPAWNS_PATH + "." + key))) {
+                    legacySpawns.put(key, unchanged);
+                    continue;
+                }
+            }
+
+            SpawnRecord spawn;
+            try {
+                spawn = SpawnCodec.read(key, value);
+            } catch (IllegalArgumentException e) {
+                errors.add("Invalid spawn entry '" + key + "': " + e.getMessage());
+                continue;
+            }
+
+            if (spawn.isLegacy()) {
+                legacySpawns.put(key, spawn);
+            } else {
+                spawns.put(spawn.worldId(), spawn);
+            }
+        }
+    }
+
+    private static Map<String, MessageTemplate> parseMessages(FileConfiguration config, ConfigSnapshot previous, List<String> errors) {
+        Set<String> keys = new LinkedHashSet<>();
+
+        Configuration defaults = config.getDefaults();
+        if (defaults != null) {
+            collectKeys(defaults.getConfigurationSection(MESSAGES_PATH), keys);
+        }
+        collectKeys(config.getConfigurationSection(MESSAGES_PATH), keys);
+
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        for (String key : keys) {
+            String path = MESSAGES_PATH + "." + key;
+            if (!config.isString(path)) {
+                errors.add("Message '" + key + "' must be a string");
+                continue;
+            }
+
+            String raw = config.getString(path);
+            MessageTemplate unchanged = previous != null ? previous.messages.get(key) : null;
+            compiled.put(key, unchanged != null && unchanged.getSource().equals(raw)
+                    ? unchanged
+                    : MessageTemplate.compile(raw, '{', '}'));
+        }
+
+        return compiled;
+    }
+
+    private static void collectKeys(ConfigurationSection section, Set<String> keys) {
+        if (section != null) {
+            keys.addAll(section.getKeys(false));
+        }
+    }
+
+    private static List<WorldEntry> parseWorldEntries(FileConfiguration config, List<String> errors) {
+        ConfigurationSection section = config.getConfigurationSection(WORLDS_PATH + ".entries");
+        List<WorldEntry> entries = new ArrayList<>();
+        if (section == null) {
+            return entries;
+        }
+
+        for (String worldName : section.getKeys(false)) {
+            ConfigurationSection entry = section.getConfigurationSection(worldName);
+            if (entry == null) {
+                errors.add("World entry '" + worldName + "' must be a section");
+                continue;
+            }
+
+            ConfigurationSection options = entry.getConfigurationSection("options");
+            entries.add(new WorldEntry(
+                    worldName,
+                    entry.getString("display-name"),
+                    entry.getStringList("aliases"),
+                    entry.getString("permission", ""),
+                    options != null ? options.getValues(false) : Map.of()
+            ));
+        }
+
+        return entries;
+    }
+
+    /**
+     * One entry of {@code worlds.entries} as written in the configuration.
+     *
+     * @param worldName   the world name
+     * @param displayName the configured display name, or {@code null} to keep the default
+     * @param aliases     the configured aliases
+     * @param permission  the required permission, or an empty string for none
+     * @param options     free-form per-world options
+     */
+    public record WorldEntry(String worldName, String displayName, List<String> aliases,
+                             String permission, Map<String, Object> options) {
+
+        public WorldEntry {
+            aliases = List.copyOf(aliases);
+            options = Map.copyOf(options);
+        }
+    }
+}
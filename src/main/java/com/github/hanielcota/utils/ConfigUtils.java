@@ -1,6 +1,9 @@
 package com.github.hanielcota.utils;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -9,19 +12,53 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @SuppressWarnings("unused")
 @Getter
 public final class ConfigUtils {
 
+    /**
+     * Delay used to merge bursts of {@link #saveConfig()} calls into a single write.
+     */
+    private static final long SAVE_COALESCE_MILLIS = 250L;
+
     private final JavaPlugin plugin;
+    private final Logger logger;
     private final String fileName;
     private final File configFile;
-    private FileConfiguration config;
+    private volatile ConfigSnapshot snapshot;
+
+    @Getter(AccessLevel.NONE)
+    private final ScheduledExecutorService ioExecutor;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<YamlConfiguration> pendingSnapshot = new AtomicReference<>();
+    @Getter(AccessLevel.NONE)
+    private final Object writeLock = new Object();
+    @Getter(AccessLevel.NONE)
+    private volatile byte[] lastSeenDigest;
 
     /**
      * Creates a new ConfigUtils bound to the provided plugin and file name.
@@ -40,56 +77,343 @@ public final class ConfigUtils {
         }
 
         this.plugin = plugin;
+        this.logger = plugin.getLogger();
         this.fileName = fileName;
         this.configFile = new File(plugin.getDataFolder(), fileName);
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-ConfigIO-" + fileName);
+            thread.setDaemon(true);
+            return thread;
+        });
 
         saveDefaultConfig();
         reloadConfig();
     }
 
+    private ConfigUtils(FileConfiguration configuration, Logger logger) {
+        this.plugin = null;
+        this.logger = logger;
+        this.fileName = "<detached>";
+        this.configFile = null;
+        this.ioExecutor = null;
+
+        List<String> errors = new ArrayList<>();
+        this.snapshot = ConfigSnapshot.parse(configuration, errors);
+        for (String error : errors) {
+            logger.warning(error + " in " + fileName);
+        }
+    }
+
+    /**
+     * Creates an instance serving an already loaded configuration, without a
+     * plugin or a file behind it, e.g. to benchmark the classes reading it.
+     * It can be read and updated in memory but not reloaded or saved, and
+     * {@link #getPlugin()} returns {@code null}.
+     *
+     * @param configuration the configuration, with any defaults already set
+     * @param logger        receives parse warnings and the warnings of the readers
+     * @return the detached instance
+     */
+    public static ConfigUtils detached(FileConfiguration configuration, Logger logger) {
+        if (configuration == null || logger == null) {
+            throw new IllegalArgumentException("Configuration and logger cannot be null");
+        }
+        return new ConfigUtils(configuration, logger);
+    }
+
     /**
      * Reloads the configuration from the file, applying defaults from the embedded resource if available.
+     * <p>
+     * Invalid entries are logged and skipped. Use {@link #reloadAsync()} to
+     * reload a running server, where invalid files must be rejected instead.
      */
     public void reloadConfig() {
-        this.config = YamlConfiguration.loadConfiguration(configFile);
+        requireFile();
+        YamlConfiguration loaded = new YamlConfiguration();
+        byte[] digest = null;
+        try {
+            byte[] content = Files.readAllBytes(configFile.toPath());
+            digest = digest(content);
+            loaded.loadFromString(new String(content, StandardCharsets.UTF_8));
+        } catch (IOException | InvalidConfigurationException e) {
+            logger.log(Level.SEVERE, "Could not load configuration: " + fileName, e);
+        }
+        applyDefaults(loaded);
+
+        List<String> errors = new ArrayList<>();
+        ConfigSnapshot parsed = ConfigSnapshot.parse(loaded, errors);
+        for (String error : errors) {
+            logger.warning(error + " in " + fileName);
+        }
+
+        synchronized (this) {
+            this.snapshot = parsed;
+            this.lastSeenDigest = digest;
+        }
+    }
+
+    /**
+     * Loads, parses and validates the file on the I/O thread, then publishes
+     * the result with a single volatile write.
+     * <p>
+     * Pending writes are flushed first so unsaved in-memory changes are not
+     * lost. If the file cannot be parsed or any entry is invalid, the returned
+     * future fails with an {@link InvalidConfigurationException} and the
+     * current snapshot stays in place.
+     *
+     * @return a future completed with the published snapshot
+     */
+    public CompletableFuture<ConfigSnapshot> reloadAsync() {
+        requireFile();
+        return CompletableFuture.supplyAsync(() -> {
+            flushPending();
+            return loadAndPublish(readFile());
+        }, ioExecutor);
+    }
+
+    /**
+     * Like {@link #reloadAsync()}, but meant for edits made by other programs.
+     * <p>
+     * If the file content equals what this instance last read or wrote, the
+     * file is not parsed and the future completes with {@code null}; this is
+     * how the plugin's own {@link #saveConfig()} writes are told apart from
+     * external edits. A changed file wins over an in-memory change that was
+     * not written yet.
+     *
+     * @return a future completed with the published snapshot, or {@code null} when the file is unchanged
+     */
+    public CompletableFuture<ConfigSnapshot> reloadIfChangedAsync() {
+        requireFile();
+        return CompletableFuture.supplyAsync(() -> {
+            byte[] content = readFile();
+            if (Arrays.equals(digest(content), lastSeenDigest)) {
+                return null;
+            }
+
+            if (pendingSnapshot.getAndSet(null) != null) {
+                logger.warning("Discarding unsaved changes to " + fileName + " in favour of an external edit");
+            }
+            return loadAndPublish(content);
+        }, ioExecutor);
+    }
+
+    private void requireFile() {
+        if (configFile == null) {
+            throw new IllegalStateException("A detached configuration has no file to read or write");
+        }
+    }
+
+    private byte[] readFile() {
+        try {
+            return Files.readAllBytes(configFile.toPath());
+        } catch (IOException e) {
+            throw new CompletionException(new InvalidConfigurationException(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Parses the given file content against the current snapshot, so entries
+     * whose raw value did not change are reused instead of parsed again.
+     */
+    private ConfigSnapshot loadAndPublish(byte[] content) {
+        YamlConfiguration loaded = new YamlConfiguration();
+        try {
+            loaded.loadFromString(new String(content, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new CompletionException(e);
+        }
+        applyDefaults(loaded);
+
+        List<String> errors = new ArrayList<>();
+        ConfigSnapshot parsed = ConfigSnapshot.parse(loaded, snapshot, errors);
+        if (!errors.isEmpty()) {
+            throw new CompletionException(new InvalidConfigurationException(String.join("; ", errors)));
+        }
+
+        synchronized (this) {
+            this.snapshot = parsed;
+            this.lastSeenDigest = digest(content);
+        }
+        return parsed;
+    }
+
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
+    /**
+     * Replaces the current snapshot with a derived one. Writers are serialized;
+     * readers are never blocked.
+     *
+     * @param change function deriving the new snapshot from the current one
+     * @return the published snapshot
+     */
+    public synchronized ConfigSnapshot update(UnaryOperator<ConfigSnapshot> change) {
+        ConfigSnapshot updated = change.apply(snapshot);
+        this.snapshot = updated;
+        return updated;
+    }
+
+    private void applyDefaults(FileConfiguration target) {
         try (InputStream defaultConfigStream = plugin.getResource(fileName)) {
             if (defaultConfigStream == null) {
                 return;
             }
 
-            try (InputStreamReader reader = new InputStreamReader(defaultConfigStream)) {
+            try (InputStreamReader reader = new InputStreamReader(defaultConfigStream, StandardCharsets.UTF_8)) {
                 FileConfiguration defaultConfig = YamlConfiguration.loadConfiguration(reader);
-                this.config.setDefaults(defaultConfig);
+                target.setDefaults(defaultConfig);
             }
 
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not load default configuration: " + fileName, e);
+            logger.log(Level.SEVERE, "Could not load default configuration: " + fileName, e);
         }
     }
 
     /**
-     * Gets the FileConfiguration, reloading it if it's null.
-     * This method is manually kept because @Getter would not provide the lazy-load logic.
+     * Gets the FileConfiguration of the current snapshot.
+     * This method is kept explicit because the raw configuration lives inside {@link ConfigSnapshot}.
      *
      * @return The loaded FileConfiguration.
      */
     public FileConfiguration getConfig() {
-        if (this.config == null) {
-            reloadConfig();
-        }
-        return this.config;
+        return snapshot.config();
     }
 
     /**
-     * Saves the current configuration to disk.
+     * Schedules the current configuration to be saved to disk.
+     * <p>
+     * An in-memory snapshot is taken on the calling thread; serialization and
+     * the file write happen on a dedicated I/O thread. Calls made within a short
+     * window are merged so only the most recent snapshot is written. The file is
+     * written to a temporary sibling and then moved over the original, so a crash
+     * never leaves a half-written configuration behind.
      */
     public void saveConfig() {
+        requireFile();
+        YamlConfiguration snapshot;
+        synchronized (this) {
+            snapshot = copyOf(getConfig());
+        }
+        if (pendingSnapshot.getAndSet(snapshot) != null) {
+            return;
+        }
+
         try {
-            getConfig().save(configFile);
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save configuration: " + fileName, e);
+            ioExecutor.schedule(this::flushPending, SAVE_COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Stops the I/O thread and synchronously writes any pending snapshot.
+     * Must be called when the owning plugin is disabled.
+     */
+    public void shutdown() {
+        if (ioExecutor == null) {
+            return;
+        }
+
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for pending writes of " + fileName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+
+        flushPending();
+    }
+
+    private void flushPending() {
+        YamlConfiguration snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            Path target = configFile.toPath();
+            Path temp = target.resolveSibling(fileName + ".tmp");
+
+            byte[] content = snapshot.saveToString().getBytes(StandardCharsets.UTF_8);
+            byte[] previousDigest = lastSeenDigest;
+
+            try {
+                Files.write(temp, content);
+                // Recorded before the move so a file watcher never mistakes this write for an external edit.
+                lastSeenDigest = digest(content);
+                moveAtomically(temp, target);
+            } catch (IOException e) {
+                lastSeenDigest = previousDigest;
+                logger.log(Level.SEVERE, "Could not save configuration: " + fileName, e);
+            }
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Creates a detached copy of the given configuration, including comments
+     * and defaults, that can be safely serialized from another thread or
+     * changed without affecting the source.
+     */
+    static YamlConfiguration copyOf(FileConfiguration source) {
+        YamlConfiguration copy = new YamlConfiguration();
+        if (source.getDefaults() != null) {
+            copy.setDefaults(source.getDefaults());
+        }
+        copy.options().setHeader(source.options().getHeader());
+        copy.options().setFooter(source.options().getFooter());
+
+        for (Map.Entry<String, Object> entry : source.getValues(true).entrySet()) {
+            String path = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value instanceof ConfigurationSection section) {
+                if (section.getKeys(false).isEmpty()) {
+                    copy.createSection(path);
+                }
+            } else {
+                copy.set(path, copyValue(value));
+            }
+
+            copy.setComments(path, source.getComments(path));
+            copy.setInlineComments(path, source.getInlineComments(path));
+        }
+
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+            return copy;
+        }
+
+        return value;
     }
 
     /**
@@ -106,10 +430,10 @@ public final class ConfigUtils {
             try (InputStream stream = plugin.getResource(fileName)) {
 
                 if (stream == null) {
-                    plugin.getLogger().warning("Default resource not found in JAR: " + fileName);
+                    logger.warning("Default resource not found in JAR: " + fileName);
 
                     if (!configFile.createNewFile()) {
-                        plugin.getLogger().severe("Could not create empty configuration file: " + fileName);
+                        logger.severe("Could not create empty configuration file: " + fileName);
                     }
                     return;
                 }
@@ -117,7 +441,7 @@ public final class ConfigUtils {
                 Files.copy(stream, configFile.toPath());
             }
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save default configuration: " + fileName, e);
+            logger.log(Level.SEVERE, "Could not save default configuration: " + fileName, e);
         }
     }
 
@@ -125,7 +449,7 @@ public final class ConfigUtils {
      * Logs a warning about attempting to access a null path.
      */
     private void logNullPathWarning() {
-        plugin.getLogger().warning("Attempted to access a NULL path in config '" + fileName + "'.");
+        logger.warning("Attempted to access a NULL path in config '" + fileName + "'.");
     }
 
     public String getString(String path) {
@@ -0,0 +1,135 @@
+package com.github.hanielcota.utils;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the file managed by a {@link ConfigUtils} for edits made by other programs.
+ * <p>
+ * A daemon thread blocks on a {@link WatchService} registered on the plugin data
+ * folder. Events for the file are collected until it has been quiet for
+ * {@code config-watcher.debounce-millis}, so an editor or deployment tool that
+ * writes in several steps triggers a single callback. The callback is expected
+ * to use {@link ConfigUtils#reloadIfChangedAsync()}, which ignores the plugin's
+ * own writes.
+ */
+public class ConfigWatcher {
+
+    private static final String CONFIG_PATH = "config-watcher";
+
+    private final JavaPlugin plugin;
+    private final ConfigUtils config;
+    private final Runnable onChange;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(JavaPlugin plugin, ConfigUtils config, Runnable onChange) {
+        this.plugin = plugin;
+        this.config = config;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts watching when {@code config-watcher.enabled} is set.
+     */
+    public void start() {
+        if (thread != null || !config.getBoolean(CONFIG_PATH + ".enabled")) {
+            return;
+        }
+
+        Path folder = config.getConfigFile().toPath().toAbsolutePath().getParent();
+        try {
+            watchService = folder.getFileSystem().newWatchService();
+            folder.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not watch " + config.getFileName() + " for changes", e);
+            close();
+            return;
+        }
+
+        long debounceMillis = Math.max(50, config.getInt(CONFIG_PATH + ".debounce-millis", 500));
+        thread = new Thread(() -> run(debounceMillis), plugin.getName() + "-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the watcher thread.
+     */
+    public void shutdown() {
+        close();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void close() {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Could not close config watcher", e);
+        }
+        watchService = null;
+    }
+
+    private void run(long debounceMillis) {
+        WatchService service = watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!consume(service.take())) {
+                    continue;
+                }
+
+                // Keep collecting until the file has been quiet for the whole window.
+                WatchKey next;
+                while ((next = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    consume(next);
+                }
+
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to apply changes to " + config.getFileName(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // Shutting down.
+        }
+    }
+
+    /**
+     * Drains a watch key.
+     *
+     * @return whether any event may concern the watched file
+     */
+    private boolean consume(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (event.context() instanceof Path path && path.getFileName().toString().equals(config.getFileName()))) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.hanielcota.utils;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * The {@code messages_<locale>.yml} bundles of the plugin folder.
+ * <p>
+ * A bundle is a flat file of message ids mapped to templates, e.g.
+ * {@code messages_pt_BR.yml}. Bundles are numbered from 1 in the order of their
+ * normalized tag ({@code pt_br}); 0 stands for the {@code messages} section of
+ * {@code config.yml}. {@link #resolve(Locale)} maps a client locale to a bundle
+ * through the chain {@code language_country}, {@code language}, any bundle of
+ * the same language, and finally 0.
+ */
+final class LocaleBundles {
+
+    static final String PREFIX = "messages_";
+    static final String SUFFIX = ".yml";
+
+    /** Bundles without any files: everything resolves to the default messages. */
+    static final LocaleBundles EMPTY = new LocaleBundles(List.of(), List.of());
+
+    private final List<String> tags;
+    private final List<Map<String, MessageTemplate>> templates;
+    private final Map<String, Integer> byTag;
+    private final Map<String, Integer> byLanguage;
+
+    private LocaleBundles(List<String> tags, List<Map<String, MessageTemplate>> templates) {
+        this.tags = List.copyOf(tags);
+        this.templates = List.copyOf(templates);
+
+        Map<String, Integer> byTag = new HashMap<>();
+        Map<String, Integer> byLanguage = new HashMap<>();
+        for (int i = 0; i < tags.size(); i++) {
+            String tag = tags.get(i);
+            byTag.put(tag, i + 1);
+
+            int separator = tag.indexOf('_');
+            byLanguage.putIfAbsent(separator < 0 ? tag : tag.substring(0, separator), i + 1);
+        }
+        this.byTag = Map.copyOf(byTag);
+        this.byLanguage = Map.copyOf(byLanguage);
+    }
+
+    /**
+     * Reads every bundle of a folder. Unreadable files and non-string entries
+     * are logged and skipped.
+     *
+     * @param folder the plugin data folder
+     * @param logger receives one warning per problem
+     * @return the loaded bundles
+     */
+    static LocaleBundles load(Path folder, Logger logger) {
+        if (!Files.isDirectory(folder)) {
+            return EMPTY;
+        }
+
+        Map<String, Map<String, MessageTemplate>> loaded = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String tag = normalize(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+                if (tag.isEmpty()) {
+                    continue;
+                }
+
+                YamlConfiguration yaml = new YamlConfiguration();
+                try {
+                    yaml.load(file.toFile());
+                } catch (IOException | InvalidConfigurationException e) {
+                    logger.warning("Could not load " + fileName + ": " + e.getMessage());
+                    continue;
+                }
+
+                Map<String, MessageTemplate> bundle = new HashMap<>();
+                for (String key : yaml.getKeys(false)) {
+                    if (!yaml.isString(key)) {
+                        logger.warning("Message '" + key + "' must be a string in " + fileName);
+                        continue;
+                    }
+                    bundle.put(key, MessageTemplate.compile(yaml.getString(key), '{', '}'));
+                }
+                loaded.put(tag, Map.copyOf(bundle));
+            }
+        } catch (IOException e) {
+            logger.warning("Could not list message bundles: " + e.getMessage());
+        }
+
+        return new LocaleBundles(List.copyOf(loaded.keySet()), List.copyOf(loaded.values()));
+    }
+
+    /**
+     * @return the number of locales, including the default one
+     */
+    int size() {
+        return tags.size() + 1;
+    }
+
+    /**
+     * @param locale a locale id greater than 0
+     * @return the normalized tag of the bundle, e.g. {@code pt_br}
+     */
+    String tag(int locale) {
+        return tags.get(locale - 1);
+    }
+
+    /**
+     * @param locale a locale id greater than 0
+     * @return the templates of the bundle, by message id
+     */
+    Map<String, MessageTemplate> templates(int locale) {
+        return templates.get(locale - 1);
+    }
+
+    /**
+     * @param locale a locale id greater than 0
+     * @return the id of the language-only bundle the bundle falls back to, or 0
+     */
+    int parent(int locale) {
+        String tag = tag(locale);
+        int separator = tag.indexOf('_');
+        if (separator < 0) {
+            return 0;
+        }
+        return byTag.getOrDefault(tag.substring(0, separator), 0);
+    }
+
+    /**
+     * Picks the bundle for a client locale.
+     *
+     * @param locale the client locale, may be {@code null}
+     * @return the locale id, 0 for the default messages
+     */
+    int resolve(Locale locale) {
+        if (locale == null || tags.isEmpty()) {
+            return 0;
+        }
+
+        String language = locale.getLanguage().toLowerCase(Locale.ROOT);
+        String country = locale.getCountry().toLowerCase(Locale.ROOT);
+        if (!country.isEmpty()) {
+            Integer exact = byTag.get(language + "_" + country);
+            if (exact != null) {
+                return exact;
+            }
+        }
+
+        Integer languageOnly = byTag.get(language);
+        if (languageOnly != null) {
+            return languageOnly;
+        }
+        return byLanguage.getOrDefault(language, 0);
+    }
+
+    private static String normalize(String tag) {
+        return tag.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+}
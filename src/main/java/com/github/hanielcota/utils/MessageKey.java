@@ -0,0 +1,84 @@
+package com.github.hanielcota.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned message name with a small, dense numeric id.
+ * <p>
+ * {@link MessageService} lays its templates out in arrays indexed by id, so
+ * sending with a key never hashes the message name. Callers should keep
+ * their keys in constants:
+ * <pre>
+ * private static final MessageKey TELEPORTING = MessageKey.of("teleporting");
+ * </pre>
+ * Ids are never reused. Keys are only created by code sending a message,
+ * never from the configuration, so the number of keys is bounded by the
+ * messages the plugin sends.
+ */
+public final class MessageKey {
+
+    private static final Map<String, MessageKey> KEYS = new ConcurrentHashMap<>();
+    private static final List<MessageKey> BY_ID = new ArrayList<>();
+
+    private final String name;
+    private final int id;
+
+    private MessageKey(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the key of a message name, assigning an id on first use.
+     *
+     * @param name the message key under the {@code messages} section, e.g. {@code teleporting}
+     * @return the interned key
+     */
+    public static MessageKey of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Message name cannot be null");
+        }
+
+        MessageKey key = KEYS.get(name);
+        return key != null ? key : intern(name);
+    }
+
+    /**
+     * @return every key created so far, by id
+     */
+    static synchronized List<MessageKey> all() {
+        return List.copyOf(BY_ID);
+    }
+
+    private static synchronized MessageKey intern(String name) {
+        MessageKey key = KEYS.get(name);
+        if (key == null) {
+            key = new MessageKey(name, BY_ID.size());
+            BY_ID.add(key);
+            KEYS.put(name, key);
+        }
+        return key;
+    }
+
+    /**
+     * @return the message name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the dense id of this key
+     */
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,37 +1,254 @@
 package com.github.hanielcota.utils;
 
-import lombok.RequiredArgsConstructor;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
 /**
  * Lightweight service used to send simple, placeholder-based messages to players.
  * <p>
- * This service uses {@link ConfigUtils#getString(String)} to read raw message
- * templates and performs basic token replacement using curly braces, e.g.
- * {@code {world}}.
+ * Every template under the {@code messages} section is compiled once per
+ * configuration version into a {@link MessageTemplate} held by the current
+ * {@link ConfigSnapshot}, so a reload swaps all templates at once. Placeholders
+ * use curly braces, e.g. {@code {world}}, and are replaced in a single
+ * rendering pass.
+ * <p>
+ * Players get the {@code messages_<locale>.yml} bundle matching their client
+ * language (see {@link LocaleBundles}). The default messages and every bundle
+ * are laid out in one table indexed by locale id and {@link MessageKey} id,
+ * with each bundle's gaps already filled from its fallback chain, and each
+ * online player's locale id is cached until they change language or quit.
+ * Sending with a {@link MessageKey} is then a lookup of the player's locale
+ * id and two array reads; the table is rebuilt when the configuration or the
+ * bundles change, or a new key is used.
  */
-@RequiredArgsConstructor
 public class MessageService {
 
+    private static final String LOCALES_PATH = "locales";
+    private static final List<String> BUNDLED_LOCALES = List.of("pt_BR", "es_ES");
+
     private final ConfigUtils config;
 
+    private volatile LocaleBundles bundles = LocaleBundles.EMPTY;
+    private volatile Table table;
+
+    /**
+     * Creates the service.
+     *
+     * @param config the configuration holding the {@code messages} section
+     */
+    public MessageService(ConfigUtils config) {
+        this.config = config;
+    }
+
+    /**
+     * Copies the bundled {@code messages_<locale>.yml} files to the plugin
+     * folder if they are missing and loads every bundle found there.
+     * Performs file I/O; call it at startup or off the main thread.
+     */
+    public void loadBundles() {
+        for (String locale : BUNDLED_LOCALES) {
+            String fileName = LocaleBundles.PREFIX + locale + LocaleBundles.SUFFIX;
+            if (!new File(config.getPlugin().getDataFolder(), fileName).exists()) {
+                config.getPlugin().saveResource(fileName, false);
+            }
+        }
+
+        this.bundles = LocaleBundles.load(config.getPlugin().getDataFolder().toPath(), config.getLogger());
+        this.table = null;
+    }
+
     /**
      * Sends a message to the provided player using a configured message template.
      * <p>
-     * The template is looked up at {@code messages.<path>} and each entry from the
-     * {@code placeholders} map is replaced like {@code {key} -> value}.
+     * The template is looked up at {@code messages.<path>}, in the player's
+     * language, and each entry from the {@code placeholders} map is replaced
+     * like {@code {key} -> value}.
      *
-     * @param player the recipient player
+     * @param player the recipient player or console
      * @param path the message key under the `messages` section in the config
      * @param placeholders map of placeholder keys to values to replace in the template
      */
-    public void send(Player player, String path, Map<String, String> placeholders) {
-        String raw = config.getString("messages." + path, "§cMessage not configured: " + path);
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            raw = raw.replace("{" + entry.getKey() + "}", entry.getValue());
+    public void send(CommandSender player, String path, Map<String, String> placeholders) {
+        send(player, MessageKey.of(path), placeholders);
+    }
+
+    /**
+     * Sends a message to the provided player, looked up by its interned key
+     * instead of by name.
+     *
+     * @param player       the recipient player or console
+     * @param key          the message key under the `messages` section in the config
+     * @param placeholders map of placeholder keys to values to replace in the template
+     */
+    public void send(CommandSender player, MessageKey key, Map<String, String> placeholders) {
+        MessageTemplate template = template(player, key);
+        if (template == null) {
+            player.sendMessage("§cMessage not configured: " + key.name());
+            return;
+        }
+
+        player.sendMessage(template.render(placeholders));
+    }
+
+    /**
+     * Sends a message with the placeholder values of a {@link PlaceholderContext},
+     * for callers that send the same message often and keep their
+     * {@link PlaceholderKey}s in constants.
+     *
+     * @param player  the recipient player or console
+     * @param path    the message key under the `messages` section in the config
+     * @param context the placeholder values; left unchanged
+     */
+    public void send(CommandSender player, String path, PlaceholderContext context) {
+        send(player, MessageKey.of(path), context);
+    }
+
+    /**
+     * Sends a message with the placeholder values of a {@link PlaceholderContext},
+     * looked up by its interned key instead of by name.
+     *
+     * @param player  the recipient player or console
+     * @param key     the message key under the `messages` section in the config
+     * @param context the placeholder values; left unchanged
+     */
+    public void send(CommandSender player, MessageKey key, PlaceholderContext context) {
+        MessageTemplate template = template(player, key);
+        if (template == null) {
+            player.sendMessage("§cMessage not configured: " + key.name());
+            return;
+        }
+
+        player.sendMessage(context.render(template));
+    }
+
+    /**
+     * Updates the cached language of a player.
+     *
+     * @param player the player
+     * @param locale the new client locale
+     */
+    public void updateLocale(Player player, Locale locale) {
+        Table current = table(0);
+        current.playerLocales.put(player.getUniqueId(), current.localeIds.resolve(locale));
+    }
+
+    /**
+     * Drops the cached language of a player who left.
+     *
+     * @param playerId the player UUID
+     */
+    public void forgetPlayer(UUID playerId) {
+        table(0).playerLocales.remove(playerId);
+    }
+
+    private MessageTemplate template(CommandSender sender, MessageKey key) {
+        Table current = table(key.id() + 1);
+
+        int locale = 0;
+        if (sender instanceof Player player && current.perPlayer) {
+            Integer cached = current.playerLocales.get(player.getUniqueId());
+            if (cached != null) {
+                locale = cached;
+            } else {
+                locale = current.localeIds.resolve(player.locale());
+                // Players who already quit are not cached, or their entry would never be removed.
+                if (player.isOnline()) {
+                    current.playerLocales.put(player.getUniqueId(), locale);
+                }
+            }
+        }
+
+        return current.templates[locale][key.id()];
+    }
+
+    /**
+     * @param keyCount the number of message keys the table must cover
+     */
+    private Table table(int keyCount) {
+        ConfigSnapshot snapshot = config.getSnapshot();
+        LocaleBundles currentBundles = bundles;
+        Table cached = table;
+        boolean changed = cached == null || cached.defaults != snapshot.messages() || cached.localeIds != currentBundles;
+        if (changed || cached.keyCount < keyCount) {
+            // Locale ids only change with the bundles, so cached player locales survive config reloads.
+            Map<UUID, Integer> playerLocales = cached != null && cached.localeIds == currentBundles
+                    ? cached.playerLocales
+                    : new ConcurrentHashMap<>();
+            // Only a new configuration or bundle set is validated, not a table grown for a new key.
+            cached = Table.build(snapshot, currentBundles, playerLocales, changed ? config.getLogger() : null);
+            this.table = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Message templates of every locale, by locale id and {@link MessageKey} id.
+     */
+    private static final class Table {
+        private final Map<String, MessageTemplate> defaults;
+        private final LocaleBundles localeIds;
+        private final boolean perPlayer;
+        private final int keyCount;
+        private final MessageTemplate[][] templates;
+        private final Map<UUID, Integer> playerLocales;
+
+        private Table(Map<String, MessageTemplate> defaults, LocaleBundles localeIds, boolean perPlayer,
+                      int keyCount, MessageTemplate[][] templates, Map<UUID, Integer> playerLocales) {
+            this.defaults = defaults;
+            this.localeIds = localeIds;
+            this.perPlayer = perPlayer;
+            this.keyCount = keyCount;
+            this.templates = templates;
+            this.playerLocales = playerLocales;
+        }
+
+        /**
+         * @param logger receives warnings about unknown bundle messages, or {@code null} to skip them
+         */
+        private static Table build(ConfigSnapshot snapshot, LocaleBundles bundles, Map<UUID, Integer> playerLocales,
+                                   Logger logger) {
+            Map<String, MessageTemplate> defaults = snapshot.messages();
+            List<MessageKey> keys = MessageKey.all();
+            MessageTemplate[] defaultRow = new MessageTemplate[keys.size()];
+            for (MessageKey key : keys) {
+                defaultRow[key.id()] = defaults.get(key.name());
+            }
+
+            MessageTemplate[][] templates = new MessageTemplate[bundles.size()][];
+            templates[0] = defaultRow;
+            for (int locale = 1; locale < bundles.size(); locale++) {
+                Map<String, MessageTemplate> own = bundles.templates(locale);
+                for (String key : own.keySet()) {
+                    if (logger != null && !defaults.containsKey(key)) {
+                        logger.warning("Unknown message '" + key + "' in " + LocaleBundles.PREFIX
+                                + bundles.tag(locale) + LocaleBundles.SUFFIX);
+                    }
+                }
+
+                int parent = bundles.parent(locale);
+                Map<String, MessageTemplate> fallback = parent > 0 ? bundles.templates(parent) : Map.of();
+
+                MessageTemplate[] row = new MessageTemplate[defaultRow.length];
+                for (MessageKey key : keys) {
+                    MessageTemplate template = defaultRow[key.id()];
+                    if (template != null) {
+                        template = own.getOrDefault(key.name(), fallback.getOrDefault(key.name(), template));
+                    }
+                    row[key.id()] = template;
+                }
+                templates[locale] = row;
+            }
+
+            boolean perPlayer = snapshot.config().getBoolean(LOCALES_PATH + ".per-player", true);
+            return new Table(defaults, bundles, perPlayer, keys.size(), templates, playerLocales);
         }
-        player.sendMessage(raw);
     }
 }
@@ -0,0 +1,169 @@
+package com.github.hanielcota.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled message template.
+ * <p>
+ * A template is split once into literal runs and placeholder slots, e.g.
+ * {@code "Teleporting to {world}..."} becomes {@code ["Teleporting to ", {world}, "..."]}.
+ * Rendering walks the segments a single time and appends them to one builder,
+ * so no intermediate strings are created per placeholder. Slots without a
+ * provided value are rendered back as their original token.
+ * <p>
+ * Each slot also stores the {@link PlaceholderKey} id of its key, so
+ * {@link #appendTo(StringBuilder, PlaceholderContext)} reads values by array
+ * index instead of by name. Compiling never creates keys: MiniMessage
+ * templates contain tags such as {@code <yellow>} that are not placeholders,
+ * and interning them would grow the key table with every edited message.
+ * Slots are instead matched against the keys that exist, again only when new
+ * keys were created since the last render; a slot without a key cannot have
+ * a value in any context.
+ */
+public final class MessageTemplate {
+
+    private final String source;
+    private final String[] literals;
+    private final String[] keys;
+    private final String[] tokens;
+    private final int[] ids;
+    private volatile int resolvedKeys = -1;
+
+    private MessageTemplate(String source, String[] literals, String[] keys, String[] tokens) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        this.tokens = tokens;
+        this.ids = new int[keys.length];
+        Arrays.fill(ids, -1);
+    }
+
+    /**
+     * Compiles a template using the given placeholder delimiters.
+     *
+     * @param source the raw template text (must not be null)
+     * @param open   the character opening a placeholder, e.g. {@code '{'}
+     * @param close  the character closing a placeholder, e.g. {@code '}'}
+     * @return the compiled template
+     */
+    public static MessageTemplate compile(String source, char open, char close) {
+        if (source == null) {
+            throw new IllegalArgumentException("Template source cannot be null");
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = source.indexOf(open);
+        while (index >= 0) {
+            int end = source.indexOf(close, index + 1);
+            if (end < 0) {
+                break;
+            }
+
+            // A nested opener means the current one is plain text, e.g. "{{world}".
+            int nested = source.indexOf(open, index + 1);
+            if (nested >= 0 && nested < end) {
+                index = nested;
+                continue;
+            }
+
+            if (end > index + 1) {
+                literals.add(source.substring(literalStart, index));
+                keys.add(source.substring(index + 1, end));
+                tokens.add(source.substring(index, end + 1));
+                literalStart = end + 1;
+            }
+
+            index = source.indexOf(open, end + 1);
+        }
+        literals.add(source.substring(literalStart));
+
+        return new MessageTemplate(
+                source,
+                literals.toArray(new String[0]),
+                keys.toArray(new String[0]),
+                tokens.toArray(new String[0])
+        );
+    }
+
+    /**
+     * @return the raw template text this template was compiled from
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return {@code true} if the template contains at least one placeholder slot
+     */
+    public boolean hasPlaceholders() {
+        return keys.length > 0;
+    }
+
+    /**
+     * Renders the template, replacing each slot with its value from the map.
+     *
+     * @param values placeholder keys (without delimiters) mapped to their values
+     * @return the rendered text
+     */
+    public String render(Map<String, String> values) {
+        if (keys.length == 0 || values == null || values.isEmpty()) {
+            return source;
+        }
+
+        StringBuilder builder = new StringBuilder(source.length() + keys.length * 16);
+        for (int i = 0; i < keys.length; i++) {
+            builder.append(literals[i]);
+
+            String value = values.get(keys[i]);
+            builder.append(value != null ? value : tokens[i]);
+        }
+        builder.append(literals[keys.length]);
+
+        return builder.toString();
+    }
+
+    /**
+     * Appends the template to a builder, replacing each slot with its value
+     * from the context.
+     *
+     * @param builder the builder to append to
+     * @param context the placeholder values
+     */
+    public void appendTo(StringBuilder builder, PlaceholderContext context) {
+        int keyCount = PlaceholderKey.count();
+        if (keyCount != resolvedKeys) {
+            resolveIds(keyCount);
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            builder.append(literals[i]);
+
+            CharSequence value = ids[i] >= 0 ? context.get(ids[i]) : null;
+            builder.append(value != null ? value : tokens[i]);
+        }
+        builder.append(literals[ids.length]);
+    }
+
+    /**
+     * Looks up the ids of slots that had no key yet. Racing threads write the
+     * same ids, and the volatile count publishes them to later renders.
+     */
+    private void resolveIds(int keyCount) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] < 0) {
+                PlaceholderKey key = PlaceholderKey.find(keys[i]);
+                if (key != null) {
+                    ids[i] = key.id();
+                }
+            }
+        }
+        resolvedKeys = keyCount;
+    }
+}
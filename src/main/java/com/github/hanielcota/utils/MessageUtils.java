@@ -6,7 +6,8 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper for retrieving and parsing message templates from a configuration.
@@ -14,9 +15,22 @@ import java.util.ArrayList;
  * This class wraps {@link ConfigUtils} and provides convenience methods to get
  * MiniMessage or legacy-serialized components with optional placeholder/tag
  * resolvers.
+ * <p>
+ * Templates are compiled once per path into a {@link MessageTemplate}, and the
+ * parsed {@link Component} is cached for every request that needs no
+ * placeholder substitution. The cache belongs to one {@link ConfigSnapshot}
+ * and is replaced as a whole when a new snapshot is published or
+ * {@link #reload()} is called.
+ * <p>
+ * Placeholders are rendered from a {@link PlaceholderContext}, which callers
+ * on hot paths (scoreboards, action bars) can borrow once per render and fill
+ * with precompiled {@link PlaceholderKey}s. The {@code String...} and
+ * {@code TagResolver...} overloads are adapters filling a pooled context.
+ * MiniMessage templates use {@code <key>} placeholders and legacy templates
+ * use {@code {key}}.
  */
 @SuppressWarnings("unused")
-public record MessageUtils(ConfigUtils config) {
+public final class MessageUtils {
 
     private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
     private static final LegacyComponentSerializer LEGACY_SERIALIZER = LegacyComponentSerializer.builder()
@@ -25,17 +39,64 @@ public record MessageUtils(ConfigUtils config) {
             .character('&')
             .build();
 
-    public MessageUtils {
+    private final ConfigUtils config;
+
+    private volatile Cache cache;
+
+    public MessageUtils(ConfigUtils config) {
         if (config == null) {
             throw new IllegalArgumentException("ConfigUtils cannot be null");
         }
+        this.config = config;
+        this.cache = new Cache(config.getSnapshot());
+    }
+
+    /**
+     * @return the configuration messages are read from
+     */
+    public ConfigUtils config() {
+        return config;
+    }
+
+    /**
+     * Discards every compiled template and cached component by swapping in an
+     * empty cache. Templates are compiled again on first use.
+     */
+    public void reload() {
+        this.cache = new Cache(config.getSnapshot());
+    }
+
+    private Cache cache() {
+        ConfigSnapshot current = config.getSnapshot();
+        Cache cached = cache;
+        if (cached.source != current) {
+            cached = new Cache(current);
+            this.cache = cached;
+        }
+        return cached;
     }
 
     private Component getNullPathErrorComponent() {
-        config.getPlugin().getLogger().warning("Attempted to get message with null path: " + config.getFileName());
+        config.getLogger().warning("Attempted to get message with null path: " + config.getFileName());
         return Component.text("Config error: null path", NamedTextColor.RED);
     }
 
+    private CompiledMessage compiled(String path) {
+        Cache current = cache();
+        return current.mini.computeIfAbsent(path, key -> {
+            String message = current.source.config().getString(key, "<red>Missing message: " + key + "</red>");
+            return new CompiledMessage(MessageTemplate.compile(message, '<', '>'), MINI_MESSAGE.deserialize(message));
+        });
+    }
+
+    private CompiledMessage compiledLegacy(String path) {
+        Cache current = cache();
+        return current.legacy.computeIfAbsent(path, key -> {
+            String message = current.source.config().getString(key, "&cMissing message: " + key);
+            return new CompiledMessage(MessageTemplate.compile(message, '{', '}'), LEGACY_SERIALIZER.deserialize(message));
+        });
+    }
+
     /**
      * Retrieves a MiniMessage-parsed component from the configured path.
      *
@@ -46,8 +107,36 @@ public record MessageUtils(ConfigUtils config) {
         if (path == null) {
             return getNullPathErrorComponent();
         }
-        String message = config.getString(path, "<red>Missing message: " + path + "</red>");
-        return MINI_MESSAGE.deserialize(message);
+        return compiled(path).component();
+    }
+
+    /**
+     * Retrieves a MiniMessage-parsed component, replacing {@code <key>}
+     * placeholders with the values of the context and resolving the remaining
+     * tags with its resolvers. Without values and resolvers the cached
+     * component is returned.
+     *
+     * @param path    configuration path to the message template
+     * @param context placeholder values and tag resolvers; left unchanged
+     * @return parsed {@link Component}
+     */
+    public Component getMessage(String path, PlaceholderContext context) {
+        if (path == null) {
+            return getNullPathErrorComponent();
+        }
+
+        CompiledMessage message = compiled(path);
+        if (context == null) {
+            return message.component();
+        }
+
+        boolean substitute = message.template().hasPlaceholders() && !context.hasNoValues();
+        if (!substitute && !context.hasResolvers()) {
+            return message.component();
+        }
+
+        String text = context.render(message.template());
+        return context.hasResolvers() ? MINI_MESSAGE.deserialize(text, context) : MINI_MESSAGE.deserialize(text);
     }
 
     /**
@@ -61,23 +150,16 @@ public record MessageUtils(ConfigUtils config) {
         if (path == null) {
             return getNullPathErrorComponent();
         }
-
-        String message = config.getString(path, "<red>Missing message: " + path + "</red>");
-
         if (resolvers == null || resolvers.length == 0) {
-            return MINI_MESSAGE.deserialize(message);
-        }
-
-        ArrayList<TagResolver> safe = new ArrayList<>();
-        for (TagResolver r : resolvers) {
-            if (r != null) safe.add(r);
+            return getMessage(path);
         }
 
-        if (safe.isEmpty()) {
-            return MINI_MESSAGE.deserialize(message);
+        try (PlaceholderContext context = PlaceholderContext.acquire()) {
+            for (TagResolver resolver : resolvers) {
+                context.resolver(resolver);
+            }
+            return getMessage(path, context);
         }
-
-        return MINI_MESSAGE.deserialize(message, safe.toArray(new TagResolver[0]));
     }
 
     /**
@@ -94,23 +176,23 @@ public record MessageUtils(ConfigUtils config) {
         if (path == null) return getNullPathErrorComponent();
         if (placeholders == null || placeholders.length == 0) return getMessage(path);
         if (placeholders.length % 2 != 0) {
-            config.getPlugin().getLogger().warning("Odd placeholder count for getMessage. Ignoring placeholders.");
+            config.getLogger().warning("Odd placeholder count for getMessage. Ignoring placeholders.");
             return getMessage(path);
         }
 
-        String result = config.getString(path, "<red>Missing message: " + path + "</red>");
-        for (int i = 0; i + 1 < placeholders.length; i += 2) {
-            String key = placeholders[i];
-            String value = placeholders[i + 1];
-            if (key == null || value == null) {
-                config.getPlugin().getLogger().warning("Null placeholder (key or value) in getMessage for path: " + path);
-                continue;
-            }
+        try (PlaceholderContext context = PlaceholderContext.acquire()) {
+            for (int i = 0; i + 1 < placeholders.length; i += 2) {
+                String key = placeholders[i];
+                String value = placeholders[i + 1];
+                if (key == null || value == null) {
+                    config.getLogger().warning("Null placeholder (key or value) in getMessage for path: " + path);
+                    continue;
+                }
 
-            result = result.replace("<" + key + ">", value);
+                context.setIfAbsent(PlaceholderKey.of(key), value);
+            }
+            return getMessage(path, context);
         }
-
-        return MINI_MESSAGE.deserialize(result);
     }
 
     /**
@@ -123,7 +205,45 @@ public record MessageUtils(ConfigUtils config) {
         if (path == null) {
             return getNullPathErrorComponent();
         }
-        String message = config.getString(path, "&cMissing message: " + path);
-        return LEGACY_SERIALIZER.deserialize(message);
+        return compiledLegacy(path).component();
+    }
+
+    /**
+     * Retrieves a legacy-formatted message, replacing {@code {key}} placeholders
+     * with the values of the context. Tag resolvers of the context are ignored.
+     *
+     * @param path    configuration path to the legacy message
+     * @param context placeholder values; left unchanged
+     * @return parsed {@link Component}
+     */
+    public Component getLegacyMessage(String path, PlaceholderContext context) {
+        if (path == null) {
+            return getNullPathErrorComponent();
+        }
+
+        CompiledMessage message = compiledLegacy(path);
+        if (context == null || context.hasNoValues() || !message.template().hasPlaceholders()) {
+            return message.component();
+        }
+        return LEGACY_SERIALIZER.deserialize(context.render(message.template()));
+    }
+
+    /**
+     * A compiled template together with its pre-parsed component.
+     */
+    private record CompiledMessage(MessageTemplate template, Component component) {
+    }
+
+    /**
+     * Holder for every cached entry of one snapshot, replaced as a single unit.
+     */
+    private static final class Cache {
+        private final ConfigSnapshot source;
+        private final Map<String, CompiledMessage> mini = new ConcurrentHashMap<>();
+        private final Map<String, CompiledMessage> legacy = new ConcurrentHashMap<>();
+
+        private Cache(ConfigSnapshot source) {
+            this.source = source;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package com.github.hanielcota.utils;
+
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.ParsingException;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable set of placeholder values and tag resolvers for one message render.
+ * <p>
+ * Values are stored in an array indexed by {@link PlaceholderKey#id()}, and the
+ * ids that were set are remembered so {@link #clear()} only touches those.
+ * Rendering appends a {@link MessageTemplate} into a buffer owned by the
+ * context, so the only string produced per render is the final text handed
+ * to the serializer. The context is itself the {@link TagResolver} passed to
+ * MiniMessage, delegating to the resolvers added with {@link #resolver}, so
+ * they are never copied into a combined resolver.
+ * <p>
+ * Contexts are not thread-safe. {@link #acquire()} hands out the calling
+ * thread's context and {@link #close()} gives it back, cleared; a nested
+ * acquire on the same thread gets a fresh, unpooled context:
+ * <pre>
+ * try (PlaceholderContext context = PlaceholderContext.acquire()) {
+ *     Component message = messages.getMessage("messages.teleporting", context.set(WORLD, name));
+ * }
+ * </pre>
+ */
+public final class PlaceholderContext implements TagResolver, AutoCloseable {
+
+    /** Buffers grown past this are dropped on close instead of being kept by the thread. */
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<PlaceholderContext> POOL = ThreadLocal.withInitial(() -> new PlaceholderContext(true));
+
+    private final boolean pooled;
+    private boolean inUse;
+
+    private CharSequence[] values = new CharSequence[Math.max(16, PlaceholderKey.count())];
+    private int[] assigned = new int[8];
+    private int assignedCount;
+
+    private final List<TagResolver> resolvers = new ArrayList<>(4);
+    private StringBuilder buffer = new StringBuilder(128);
+
+    private PlaceholderContext(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * @return a new context that is not pooled
+     */
+    public static PlaceholderContext create() {
+        return new PlaceholderContext(false);
+    }
+
+    /**
+     * Borrows the calling thread's context, or a new one if it is already borrowed.
+     *
+     * @return an empty context; {@link #close()} it when done
+     */
+    public static PlaceholderContext acquire() {
+        PlaceholderContext context = POOL.get();
+        if (context.inUse) {
+            return new PlaceholderContext(false);
+        }
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Sets the value of a placeholder, replacing a previous value.
+     *
+     * @param key   the placeholder key
+     * @param value the value; {@code null} leaves the placeholder token in place
+     * @return this context
+     */
+    public PlaceholderContext set(PlaceholderKey key, CharSequence value) {
+        int id = key.id();
+        if (id >= values.length) {
+            values = Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+        }
+
+        if (values[id] == null && value != null) {
+            if (assignedCount == assigned.length) {
+                assigned = Arrays.copyOf(assigned, assigned.length * 2);
+            }
+            assigned[assignedCount++] = id;
+        }
+        values[id] = value;
+        return this;
+    }
+
+    /**
+     * Sets the value of a placeholder by name.
+     *
+     * @param key   the placeholder name without delimiters
+     * @param value the value
+     * @return this context
+     * @see #set(PlaceholderKey, CharSequence)
+     */
+    public PlaceholderContext set(String key, CharSequence value) {
+        return set(PlaceholderKey.of(key), value);
+    }
+
+    /**
+     * Sets the value of a placeholder unless it already has one.
+     *
+     * @param key   the placeholder key
+     * @param value the value
+     * @return this context
+     */
+    public PlaceholderContext setIfAbsent(PlaceholderKey key, CharSequence value) {
+        return get(key.id()) == null ? set(key, value) : this;
+    }
+
+    /**
+     * Adds a MiniMessage tag resolver. Resolvers added first win.
+     *
+     * @param resolver the resolver; {@code null} is ignored
+     * @return this context
+     */
+    public PlaceholderContext resolver(TagResolver resolver) {
+        if (resolver != null) {
+            resolvers.add(resolver);
+        }
+        return this;
+    }
+
+    /**
+     * @return whether no placeholder value is set
+     */
+    public boolean hasNoValues() {
+        return assignedCount == 0;
+    }
+
+    /**
+     * @return whether at least one tag resolver was added
+     */
+    public boolean hasResolvers() {
+        return !resolvers.isEmpty();
+    }
+
+    /**
+     * Renders a template with the values of this context.
+     *
+     * @param template the template
+     * @return the rendered text
+     */
+    public String render(MessageTemplate template) {
+        if (assignedCount == 0 || !template.hasPlaceholders()) {
+            return template.getSource();
+        }
+
+        buffer.setLength(0);
+        template.appendTo(buffer, this);
+        return buffer.toString();
+    }
+
+    /**
+     * @param id a placeholder id
+     * @return the value set for the id, or {@code null}
+     */
+    CharSequence get(int id) {
+        return id < values.length ? values[id] : null;
+    }
+
+    /**
+     * Removes every value and resolver.
+     */
+    public void clear() {
+        for (int i = 0; i < assignedCount; i++) {
+            values[assigned[i]] = null;
+        }
+        assignedCount = 0;
+        resolvers.clear();
+    }
+
+    /**
+     * Clears the context and returns it to the calling thread's pool.
+     */
+    @Override
+    public void close() {
+        clear();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffer = new StringBuilder(128);
+        }
+        if (pooled) {
+            inUse = false;
+        }
+    }
+
+    @Override
+    public Tag resolve(String name, ArgumentQueue arguments, Context ctx) throws ParsingException {
+        for (int i = 0; i < resolvers.size(); i++) {
+            TagResolver resolver = resolvers.get(i);
+            if (resolver.has(name)) {
+                return resolver.resolve(name, arguments, ctx);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean has(String name) {
+        for (int i = 0; i < resolvers.size(); i++) {
+            if (resolvers.get(i).has(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.hanielcota.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned placeholder name with a small, dense numeric id.
+ * <p>
+ * A {@link PlaceholderContext} stores values in an array indexed by id, and
+ * {@link MessageTemplate} caches the id of each slot, so rendering never hashes
+ * a placeholder name. Callers on hot paths should keep
+ * their keys in constants:
+ * <pre>
+ * private static final PlaceholderKey WORLD = PlaceholderKey.of("world");
+ * </pre>
+ * Ids are never reused. Keys are only created through {@link #of}, by code
+ * setting a value, never by compiling a template, so the number of distinct
+ * names is bounded by the placeholders used in code.
+ */
+public final class PlaceholderKey {
+
+    private static final Map<String, PlaceholderKey> KEYS = new ConcurrentHashMap<>();
+    private static volatile int count;
+
+    private final String name;
+    private final int id;
+
+    private PlaceholderKey(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the key of a placeholder name, assigning an id on first use.
+     *
+     * @param name the placeholder name without delimiters, e.g. {@code world}
+     * @return the interned key
+     */
+    public static PlaceholderKey of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Placeholder name cannot be null");
+        }
+
+        PlaceholderKey key = KEYS.get(name);
+        return key != null ? key : intern(name);
+    }
+
+    /**
+     * Returns the key of a placeholder name without creating one.
+     *
+     * @param name the placeholder name without delimiters
+     * @return the existing key, or {@code null} if the name was never used
+     */
+    static PlaceholderKey find(String name) {
+        return KEYS.get(name);
+    }
+
+    /**
+     * @return the number of keys created so far; every key counted is visible to {@link #find}
+     */
+    static int count() {
+        return count;
+    }
+
+    private static synchronized PlaceholderKey intern(String name) {
+        PlaceholderKey key = KEYS.get(name);
+        if (key == null) {
+            key = new PlaceholderKey(name, count);
+            KEYS.put(name, key);
+            count = key.id + 1;
+        }
+        return key;
+    }
+
+    /**
+     * @return the placeholder name without delimiters
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the dense id of this key
+     */
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,446 @@
+package com.github.hanielcota.utils;
+
+import com.github.hanielcota.models.ReturnPoint;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Persistent store of the last location of each player in each world.
+ * <p>
+ * Return points are kept in an append-only binary log inside the plugin
+ * folder. Each record is {@code [int length][long msb][long lsb][short worldLength]
+ * [world UTF-8][double x][double y][double z][float yaw][float pitch]}. New points
+ * are queued on the main thread and appended in batches by a dedicated I/O
+ * thread; when the log holds more than twice as many records as live entries it
+ * is compacted into a fresh file that is moved over the old one atomically.
+ * <p>
+ * The I/O thread keeps an index of the newest record offset per player and
+ * world. Lookups only consult the in-memory cache, so they never touch the
+ * disk. Online players are always cached; the points of players who left are
+ * kept in a bounded LRU, so a quick rejoin needs no disk read. Other joining
+ * players are loaded from the log on the I/O thread, after the queued writes,
+ * so a quit record that was not written yet is never missed.
+ */
+public class ReturnPointStore {
+
+    private static final String CONFIG_PATH = "return-points";
+    private static final String FILE_NAME = "return-points.dat";
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 1024;
+
+    private final JavaPlugin plugin;
+    private final ConfigUtils config;
+    private final Path file;
+    private final ScheduledExecutorService ioExecutor;
+
+    private final ConcurrentLinkedQueue<Write> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final PointCache cache;
+
+    // Only accessed from the I/O thread.
+    private final Map<UUID, Map<String, Long>> index = new HashMap<>();
+    private FileChannel channel;
+    private long recordCount;
+    private long liveCount;
+
+    public ReturnPointStore(JavaPlugin plugin, ConfigUtils config) {
+        this.plugin = plugin;
+        this.config = config;
+        this.file = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+        this.cache = new PointCache(Math.max(16, config.getInt(CONFIG_PATH + ".cache-size", 500)));
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-ReturnPoints");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return whether return points are enabled in the configuration
+     */
+    public boolean isEnabled() {
+        return config.getBoolean(CONFIG_PATH + ".enabled");
+    }
+
+    /**
+     * Opens the log and builds its index on the I/O thread, then schedules
+     * periodic batch writes.
+     */
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        ioExecutor.execute(this::open);
+
+        long interval = Math.max(1, config.getInt(CONFIG_PATH + ".flush-interval-seconds", 5));
+        ioExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes every queued return point and closes the log.
+     */
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        try {
+            ioExecutor.submit(() -> {
+                flush();
+                closeChannel();
+            }).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not flush return points", e);
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Records the location a player is leaving.
+     *
+     * @param player   the player
+     * @param location the location to return to later
+     */
+    public void record(Player player, Location location) {
+        if (!isEnabled() || location.getWorld() == null) {
+            return;
+        }
+
+        ReturnPoint point = ReturnPoint.of(location);
+        cache.put(player.getUniqueId(), point);
+        pendingWrites.add(new Write(player.getUniqueId(), point));
+    }
+
+    /**
+     * Returns the location a player last occupied in a world.
+     * Only cached entries of online players are consulted.
+     *
+     * @param player the player
+     * @param world  the world
+     * @return a new location, or {@code null} when none is known
+     */
+    public Location getReturnLocation(Player player, World world) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        ReturnPoint point = cache.get(player.getUniqueId(), world.getName());
+        return point == null ? null : point.toLocation(world);
+    }
+
+    /**
+     * Loads a joining player's return points into the cache, from the players
+     * who left recently or from the log on the I/O thread.
+     *
+     * @param player the joining player
+     */
+    public void load(Player player) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        UUID uuid = player.getUniqueId();
+        if (cache.join(uuid)) {
+            return;
+        }
+
+        try {
+            ioExecutor.execute(() -> {
+                // The player's quit record may still be queued; index it first.
+                flush();
+
+                Map<String, Long> offsets = index.get(uuid);
+                if (offsets == null) {
+                    return;
+                }
+
+                for (long offset : offsets.values()) {
+                    try {
+                        Write write = readRecord(offset);
+                        if (write != null) {
+                            cache.putIfAbsent(uuid, write.point());
+                        }
+                    } catch (IOException e) {
+                        plugin.getLogger().log(Level.WARNING, "Could not read return point of " + uuid, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down.
+        }
+    }
+
+    /**
+     * Records the quit location and moves the player's points to the LRU of
+     * players who left.
+     *
+     * @param player the player leaving the server
+     */
+    public void unload(Player player) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        record(player, player.getLocation());
+        cache.quit(player.getUniqueId());
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            rebuildIndex();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open return point store " + FILE_NAME, e);
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        index.clear();
+        recordCount = 0;
+        liveCount = 0;
+
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+
+        while (offset + Integer.BYTES <= size) {
+            lengthBuffer.clear();
+            channel.read(lengthBuffer, offset);
+            int length = lengthBuffer.flip().getInt();
+            if (length <= 0 || offset + Integer.BYTES + length > size) {
+                break;
+            }
+
+            Write write = readRecord(offset);
+            if (write == null) {
+                break;
+            }
+
+            indexRecord(write, offset);
+            offset += Integer.BYTES + length;
+        }
+
+        if (offset < size) {
+            plugin.getLogger().warning("Truncating incomplete tail of " + FILE_NAME + " at byte " + offset);
+            channel.truncate(offset);
+        }
+        channel.position(offset);
+    }
+
+    private void indexRecord(Write write, long offset) {
+        Long previous = index.computeIfAbsent(write.uuid(), uuid -> new HashMap<>()).put(write.point().worldName(), offset);
+        recordCount++;
+        if (previous == null) {
+            liveCount++;
+        }
+    }
+
+    private Write readRecord(long offset) throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(lengthBuffer, offset);
+        int length = lengthBuffer.flip().getInt();
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        if (channel.read(buffer, offset + Integer.BYTES) < length) {
+            return null;
+        }
+        buffer.flip();
+
+        UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+        byte[] worldBytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(worldBytes);
+
+        ReturnPoint point = new ReturnPoint(
+                new String(worldBytes, StandardCharsets.UTF_8),
+                buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                buffer.getFloat(), buffer.getFloat()
+        );
+        return new Write(uuid, point);
+    }
+
+    private static ByteBuffer encode(Write write) {
+        byte[] worldBytes = write.point().worldName().getBytes(StandardCharsets.UTF_8);
+        int length = Long.BYTES * 2 + Short.BYTES + worldBytes.length + Double.BYTES * 3 + Float.BYTES * 2;
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+        buffer.putInt(length);
+        buffer.putLong(write.uuid().getMostSignificantBits());
+        buffer.putLong(write.uuid().getLeastSignificantBits());
+        buffer.putShort((short) worldBytes.length);
+        buffer.put(worldBytes);
+        buffer.putDouble(write.point().x());
+        buffer.putDouble(write.point().y());
+        buffer.putDouble(write.point().z());
+        buffer.putFloat(write.point().yaw());
+        buffer.putFloat(write.point().pitch());
+        return buffer.flip();
+    }
+
+    private void flush() {
+        if (channel == null || pendingWrites.isEmpty()) {
+            return;
+        }
+
+        List<Write> batch = new ArrayList<>();
+        Write write;
+        while ((write = pendingWrites.poll()) != null) {
+            batch.add(write);
+        }
+
+        try {
+            for (Write entry : batch) {
+                long offset = channel.position();
+                ByteBuffer buffer = encode(entry);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                indexRecord(entry, offset);
+            }
+            channel.force(false);
+
+            if (recordCount > MIN_RECORDS_BEFORE_COMPACTION && recordCount > liveCount * 2) {
+                compact();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write return points", e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(FILE_NAME + ".compact");
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map<String, Long> offsets : index.values()) {
+                for (long offset : offsets.values()) {
+                    Write write = readRecord(offset);
+                    if (write == null) {
+                        continue;
+                    }
+
+                    ByteBuffer buffer = encode(write);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+            }
+            out.force(true);
+        }
+
+        closeChannel();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        rebuildIndex();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close " + FILE_NAME, e);
+        }
+        channel = null;
+    }
+
+    private record Write(UUID uuid, ReturnPoint point) {
+    }
+
+    /**
+     * Return points of online players, never evicted, and an access-ordered,
+     * size-bounded cache of the points of players who left.
+     */
+    private static final class PointCache {
+
+        private final Map<UUID, Map<String, ReturnPoint>> online = new HashMap<>();
+        private final LinkedHashMap<UUID, Map<String, ReturnPoint>> offline;
+
+        private PointCache(int maxOfflinePlayers) {
+            this.offline = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Map<String, ReturnPoint>> eldest) {
+                    return size() > maxOfflinePlayers;
+                }
+            };
+        }
+
+        private synchronized ReturnPoint get(UUID uuid, String worldName) {
+            Map<String, ReturnPoint> points = online.get(uuid);
+            return points == null ? null : points.get(worldName);
+        }
+
+        /**
+         * @return whether the player's points were still cached from their last session
+         */
+        private synchronized boolean join(UUID uuid) {
+            Map<String, ReturnPoint> points = offline.remove(uuid);
+            Map<String, ReturnPoint> current = online.computeIfAbsent(uuid, key -> new HashMap<>());
+            if (points == null) {
+                return false;
+            }
+            points.forEach(current::putIfAbsent);
+            return true;
+        }
+
+        private synchronized void quit(UUID uuid) {
+            Map<String, ReturnPoint> points = online.remove(uuid);
+            if (points != null) {
+                offline.put(uuid, points);
+            }
+        }
+
+        private synchronized void put(UUID uuid, ReturnPoint point) {
+            Map<String, ReturnPoint> points = online.get(uuid);
+            if (points != null) {
+                points.put(point.worldName(), point);
+            }
+        }
+
+        /**
+         * Adds a point read from the log, also when the player already left
+         * again, so their cached points stay complete.
+         */
+        private synchronized void putIfAbsent(UUID uuid, ReturnPoint point) {
+            Map<String, ReturnPoint> points = online.get(uuid);
+            if (points == null) {
+                points = offline.get(uuid);
+            }
+            if (points != null) {
+                points.putIfAbsent(point.worldName(), point);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.hanielcota.utils;
+
+import com.github.hanielcota.enums.SpawnStrategy;
+import com.github.hanielcota.models.SpawnPoint;
+import com.github.hanielcota.models.SpawnRecord;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads and writes the entries of the {@code spawns} section.
+ * <p>
+ * Version 2 stores one section per world, keyed by the world UUID:
+ * <pre>
+ * spawns:
+ *   3f1c1c7e-6b1e-4c59-a0f4-0b8f4e2d9a11:
+ *     version: 2
+ *     world: world_nether
+ *     x: 128.5
+ *     y: 64.0
+ *     z: -256.25
+ *     yaw: 90.0
+ *     pitch: 12.5
+ *     # Only written for worlds with several spawn points:
+ *     strategy: weighted
+ *     weight: 2.0
+ *     points:
+ *       - {x: 140.5, y: 64.0, z: -256.25, yaw: 90.0, pitch: 0.0, weight: 1.0}
+ * </pre>
+ * The top-level coordinates are the primary point and {@code points} lists the
+ * additional ones. Fields are read by name and {@code strategy}, {@code weight}
+ * and {@code points} are optional, so a reader that predates them still loads
+ * the primary point; a record with a newer {@code version} is rejected instead
+ * of being read partially. Version 1 entries are the legacy
+ * {@code x,y,z[,yaw,pitch]} strings keyed by world name, read by
+ * {@link SpawnPoint#parse}; {@link SpawnConfigUtils} rewrites them as version 2
+ * once their world is loaded.
+ */
+final class SpawnCodec {
+
+    /** Version written by {@link #write}. */
+    static final int VERSION = 2;
+
+    private SpawnCodec() {
+    }
+
+    /**
+     * Reads one entry of the {@code spawns} section.
+     *
+     * @param key   the entry key: a world UUID, or a world name for legacy entries
+     * @param value the entry value
+     * @return the spawn record; legacy entries have no world UUID
+     * @throws IllegalArgumentException if the entry is malformed
+     */
+    static SpawnRecord read(String key, Object value) {
+        if (value instanceof ConfigurationSection section) {
+            return readRecord(key, section);
+        }
+        if (value instanceof String raw) {
+            return SpawnRecord.of(null, key, SpawnPoint.parse(raw));
+        }
+        throw new IllegalArgumentException("expected a spawn section or an x,y,z string");
+    }
+
+    /**
+     * Encodes a record as the values of its {@code spawns.<world uuid>} section.
+     *
+     * @param spawn the record; it must have a world UUID
+     * @return the section values, in the order they are written
+     */
+    static Map<String, Object> write(SpawnRecord spawn) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("version", VERSION);
+        values.put("world", spawn.worldName());
+        writePoint(spawn.point(), values);
+
+        List<SpawnRecord.WeightedPoint> points = spawn.points();
+        if (points.size() > 1) {
+            values.put("strategy", spawn.strategy().getKey());
+            values.put("weight", points.get(0).weight());
+
+            List<Map<String, Object>> additional = new ArrayList<>(points.size() - 1);
+            for (int i = 1; i < points.size(); i++) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                writePoint(points.get(i).point(), entry);
+                entry.put("weight", points.get(i).weight());
+                additional.add(entry);
+            }
+            values.put("points", additional);
+        }
+        return values;
+    }
+
+    private static void writePoint(SpawnPoint point, Map<String, Object> values) {
+        values.put("x", point.x());
+        values.put("y", point.y());
+        values.put("z", point.z());
+        // Yaw and pitch keep the two decimals of the legacy format instead of float noise.
+        values.put("yaw", Math.round(point.yaw() * 100.0) / 100.0);
+        values.put("pitch", Math.round(point.pitch() * 100.0) / 100.0);
+    }
+
+    private static SpawnRecord readRecord(String key, ConfigurationSection section) {
+        int version = section.getInt("version", VERSION);
+        if (version > VERSION) {
+            throw new IllegalArgumentException("written by a newer format version (" + version + ")");
+        }
+
+        UUID worldId;
+        try {
+            worldId = UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("key must be a world UUID");
+        }
+
+        SpawnStrategy strategy = SpawnStrategy.ROUND_ROBIN;
+        if (section.isSet("strategy")) {
+            strategy = SpawnStrategy.fromKey(section.getString("strategy"));
+            if (strategy == null) {
+                throw new IllegalArgumentException("unknown strategy '" + section.getString("strategy") + "'");
+            }
+        }
+
+        List<SpawnRecord.WeightedPoint> points = new ArrayList<>();
+        points.add(readPoint(section.getValues(false)));
+        for (Map<?, ?> entry : section.getMapList("points")) {
+            points.add(readPoint(entry));
+        }
+
+        return new SpawnRecord(worldId, section.getString("world", ""), points, strategy);
+    }
+
+    private static SpawnRecord.WeightedPoint readPoint(Map<?, ?> values) {
+        SpawnPoint point = new SpawnPoint(
+                number(values, "x"),
+                number(values, "y"),
+                number(values, "z"),
+                (float) optionalNumber(values, "yaw", 0.0),
+                (float) optionalNumber(values, "pitch", 0.0)
+        );
+        return new SpawnRecord.WeightedPoint(point, optionalNumber(values, "weight", 1.0));
+    }
+
+    private static double number(Map<?, ?> values, String field) {
+        if (values.get(field) instanceof Number value) {
+            return value.doubleValue();
+        }
+        throw new IllegalArgumentException("missing numeric field '" + field + "'");
+    }
+
+    private static double optionalNumber(Map<?, ?> values, String field, double fallback) {
+        return values.get(field) instanceof Number value ? value.doubleValue() : fallback;
+    }
+}
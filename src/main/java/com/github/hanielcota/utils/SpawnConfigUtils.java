@@ -1,72 +1,403 @@
 package com.github.hanielcota.utils;
 
-import lombok.AllArgsConstructor;
+import com.github.hanielcota.enums.SpawnStrategy;
+import com.github.hanielcota.models.SpawnPoint;
+import com.github.hanielcota.models.SpawnRecord;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
 
 /**
  * Utility for reading configured spawn points from a configuration file.
  * <p>
- * This reads the value under the path `spawns.<worldName>` and parses it into
- * a {@link Location}. If no custom value is configured or the value is
- * invalid, the world's default spawn location is returned. If the world is not
- * loaded, this returns {@code null}.
+ * Spawn records are read once per configuration version into the immutable
+ * {@link ConfigSnapshot} published by {@link ConfigUtils}, keyed by world
+ * {@link UUID} so a renamed world keeps its spawn. A second immutable map holds
+ * a {@link SpawnPool} per loaded world, with ready-made {@link Location}
+ * templates and the state used to pick one of several spawn points; it
+ * remembers which snapshot it was built from, so after a reload readers fall
+ * back to the new spawn records until the pools are rebuilt and never observe
+ * a mix of old and new values. Pools whose record did not change are kept, so
+ * a reload does not reset the tracked player density.
+ * <p>
+ * Legacy {@code spawns.<world>: "x,y,z,yaw,pitch"} entries are migrated to
+ * the current format, and the configuration saved, the first time their world
+ * is seen loaded.
+ * <p>
+ * If no custom value is configured or the value is invalid, the world's
+ * default spawn location is returned. If the world is not loaded, this
+ * returns {@code null}.
  */
-@AllArgsConstructor
 public class SpawnConfigUtils {
 
+    private static final String CONFIG_PATH = "spawn-selection";
+
+    private final Logger logger;
     private final ConfigUtils config;
+    private final Supplier<List<World>> worlds;
+
+    private volatile Pools pools = new Pools(null, Map.of(), false);
+
+    /**
+     * Creates the utility, migrates legacy spawns of the loaded worlds and
+     * builds their spawn pools.
+     *
+     * @param logger the plugin logger
+     * @param config the configuration holding the {@code spawns} section
+     */
+    public SpawnConfigUtils(Logger logger, ConfigUtils config) {
+        this(logger, config, Bukkit::getWorlds);
+    }
+
+    /**
+     * Creates the utility over an explicit set of loaded worlds, for use
+     * without a running server.
+     *
+     * @param logger the plugin logger
+     * @param config the configuration holding the {@code spawns} section
+     * @param worlds supplies the currently loaded worlds
+     */
+    public SpawnConfigUtils(Logger logger, ConfigUtils config, Supplier<List<World>> worlds) {
+        this.logger = logger;
+        this.config = config;
+        this.worlds = worlds;
+        rebuildLocations();
+    }
+
+    /**
+     * Moves the primary spawn point of the given world, keeping any additional
+     * points, and atomically publishes a snapshot containing it.
+     * <p>
+     * The configuration is only updated in memory; callers are responsible
+     * for persisting it.
+     *
+     * @param world the world whose spawn is being changed
+     * @param spawn the new spawn point
+     */
+    public synchronized void setSpawn(World world, SpawnPoint spawn) {
+        updateSpawn(world, current -> current != null
+                ? current.withPrimary(spawn)
+                : SpawnRecord.of(world.getUID(), world.getName(), spawn));
+    }
+
+    /**
+     * Adds a spawn point to the given world. A world without a custom spawn
+     * gets the point as its primary spawn.
+     *
+     * @param world  the world
+     * @param spawn  the new spawn point
+     * @param weight the relative weight of the point; must be positive
+     * @return the index of the new point
+     * @throws IllegalArgumentException if the weight is not positive
+     */
+    public synchronized int addSpawnPoint(World world, SpawnPoint spawn, double weight) {
+        SpawnRecord.WeightedPoint point = new SpawnRecord.WeightedPoint(spawn, weight);
+        SpawnRecord updated = updateSpawn(world, current -> current != null
+                ? current.withPoint(point)
+                : new SpawnRecord(world.getUID(), world.getName(), List.of(point), SpawnStrategy.ROUND_ROBIN));
+        return updated.points().size() - 1;
+    }
+
+    /**
+     * Removes one spawn point of the given world. The last remaining point
+     * cannot be removed.
+     *
+     * @param world the world
+     * @param index the index of the point, as listed by {@link #getSpawnRecord}
+     * @return {@code false} if there is no such point or it is the only one
+     */
+    public synchronized boolean removeSpawnPoint(World world, int index) {
+        SpawnRecord current = getSpawnRecord(world);
+        if (current == null || current.points().size() < 2 || index < 0 || index >= current.points().size()) {
+            return false;
+        }
+
+        updateSpawn(world, record -> record.withoutPoint(index));
+        return true;
+    }
+
+    /**
+     * Changes how teleports pick one of the spawn points of the given world.
+     *
+     * @param world    the world
+     * @param strategy the new strategy
+     * @return {@code false} if the world has no custom spawn
+     */
+    public synchronized boolean setStrategy(World world, SpawnStrategy strategy) {
+        if (getSpawnRecord(world) == null) {
+            return false;
+        }
+
+        updateSpawn(world, record -> record.withStrategy(strategy));
+        return true;
+    }
+
+    /**
+     * Rebuilds the per-world spawn pools after a world was loaded or
+     * unloaded, or the configuration was reloaded.
+     * <p>
+     * Legacy entries of loaded worlds are migrated first, as are records whose
+     * stored world name is out of date after a rename.
+     */
+    public synchronized void rebuildLocations() {
+        ConfigSnapshot snapshot = migrateSpawns(config.getSnapshot());
+        int densityRadius = Math.max(1, snapshot.config().getInt(CONFIG_PATH + ".density-radius", 16));
+
+        Map<UUID, SpawnPool> current = pools.byWorld();
+        Map<UUID, SpawnPool> resolved = new HashMap<>();
+        boolean tracksDensity = false;
+
+        for (World world : worlds.get()) {
+            SpawnRecord spawn = snapshot.findSpawn(world.getUID(), world.getName());
+            if (spawn == null) {
+                continue;
+            }
+
+            SpawnPool pool = current.get(world.getUID());
+            if (pool == null || !pool.matches(spawn, densityRadius)) {
+                pool = new SpawnPool(world, spawn, densityRadius);
+            }
+            resolved.put(world.getUID(), pool);
+            tracksDensity |= pool.tracksDensity();
+        }
+
+        this.pools = new Pools(snapshot, Map.copyOf(resolved), tracksDensity);
+    }
+
+    /**
+     * Drops the cached spawn pool of a world that is being unloaded.
+     * <p>
+     * {@link org.bukkit.event.world.WorldUnloadEvent} fires while the world is
+     * still registered, so a full rebuild would keep it; this removes it explicitly.
+     *
+     * @param world the world being unloaded
+     */
+    public synchronized void evictWorld(World world) {
+        Pools current = pools;
+        if (!current.byWorld().containsKey(world.getUID())) {
+            return;
+        }
+
+        Map<UUID, SpawnPool> updated = new HashMap<>(current.byWorld());
+        updated.remove(world.getUID());
+        this.pools = new Pools(current.source(), Map.copyOf(updated), current.tracksDensity());
+    }
+
+    /**
+     * Returns the spawn record configured for a world, if any.
+     *
+     * @param world the world
+     * @return the configured spawn record or {@code null} when none is configured
+     */
+    public SpawnRecord getSpawnRecord(World world) {
+        return config.getSnapshot().findSpawn(world.getUID(), world.getName());
+    }
+
+    /**
+     * Returns the primary spawn point configured for a world, if any.
+     *
+     * @param world the world
+     * @return the configured spawn point or {@code null} when none is configured
+     */
+    public SpawnPoint getSpawnPoint(World world) {
+        SpawnRecord spawn = getSpawnRecord(world);
+        return spawn != null ? spawn.point() : null;
+    }
 
     /**
      * Retrieves the configured spawn location for a world.
      * <p>
-     * The configuration expects a comma-separated value in the format:
-     * {@code x,y,z[,yaw,pitch]}. If yaw/pitch are omitted they default to 0.
-     * If the configured value is missing or invalid this method falls back to
-     * the world's default spawn location. Returns {@code null} when the world
-     * with the provided name cannot be found.
+     * Returns {@code null} when the world with the provided name cannot be found.
+     * Prefer {@link #getSpawnLocation(World)} when the world is already resolved.
      *
      * @param worldName the name of the world to get the spawn for
-     * @return the parsed spawn {@link Location}, the world's default spawn if
-     * configured value is missing/invalid, or {@code null} if the world is not loaded
+     * @return the cached spawn {@link Location}, the world's default spawn if
+     * no valid value is configured, or {@code null} if the world is not loaded
      */
     public Location getSpawnLocation(String worldName) {
-        FileConfiguration cfg = config.getConfig();
-        String raw = cfg.getString("spawns." + worldName);
-
         World world = Bukkit.getWorld(worldName);
         if (world == null) {
             return null;
         }
 
-        if (raw == null || raw.isBlank()) {
-            return world.getSpawnLocation();
+        return getSpawnLocation(world);
+    }
+
+    /**
+     * Retrieves the primary spawn location for an already resolved world.
+     * <p>
+     * The returned location is a copy of the cached value, so callers may freely
+     * mutate it.
+     *
+     * @param world the loaded world
+     * @return the cached spawn {@link Location} or the world's default spawn
+     */
+    public Location getSpawnLocation(World world) {
+        SpawnPool pool = currentPool(world);
+        if (pool != null) {
+            return pool.primary();
+        }
+
+        SpawnRecord spawn = getSpawnRecord(world);
+        if (spawn != null) {
+            return spawn.point().toLocation(world);
+        }
+
+        return world.getSpawnLocation();
+    }
+
+    /**
+     * Retrieves every spawn location of an already resolved world, primary first.
+     *
+     * @param world the loaded world
+     * @return copies of the configured spawn locations, or the world's default spawn
+     */
+    public List<Location> getSpawnLocations(World world) {
+        SpawnPool pool = currentPool(world);
+        if (pool != null) {
+            return List.of(pool.all());
+        }
+
+        SpawnRecord spawn = getSpawnRecord(world);
+        if (spawn == null) {
+            return List.of(world.getSpawnLocation());
         }
 
-        try {
-            String[] parts = raw.split(",");
+        List<Location> result = new ArrayList<>(spawn.points().size());
+        for (SpawnRecord.WeightedPoint point : spawn.points()) {
+            result.add(point.point().toLocation(world));
+        }
+        return result;
+    }
 
-            double x = Double.parseDouble(parts[0]);
-            double y = Double.parseDouble(parts[1]);
-            double z = Double.parseDouble(parts[2]);
+    /**
+     * Picks the spawn location a player teleported to a world lands on, using
+     * the world's {@link SpawnStrategy} when it has several spawn points.
+     *
+     * @param world  the loaded world
+     * @param player the teleported player
+     * @return a copy of the chosen location, or the world's default spawn
+     */
+    public Location selectSpawnLocation(World world, Player player) {
+        SpawnPool pool = currentPool(world);
+        if (pool != null) {
+            return pool.select(player.getUniqueId());
+        }
+
+        return getSpawnLocation(world);
+    }
 
-            float yaw = 0f;
-            float pitch = 0f;
+    /**
+     * Updates the spawn point density after a player moved to another block,
+     * was teleported or joined.
+     *
+     * @param player   the player
+     * @param location the player's new location
+     */
+    public void trackPlayer(Player player, Location location) {
+        Pools current = pools;
+        if (!current.tracksDensity()) {
+            return;
+        }
 
-            if (parts.length >= 5) {
-                yaw = Float.parseFloat(parts[3]);
-                pitch = Float.parseFloat(parts[4]);
+        SpawnPool pool = current.byWorld().get(location.getWorld().getUID());
+        if (pool != null && pool.tracksDensity()) {
+            pool.onMove(player.getUniqueId(), location.getBlockX(), location.getBlockZ());
+        }
+    }
+
+    /**
+     * Stops counting a player towards the spawn point density of a world.
+     *
+     * @param player the player
+     * @param world  the world the player left
+     */
+    public void untrackPlayer(Player player, World world) {
+        Pools current = pools;
+        if (!current.tracksDensity()) {
+            return;
+        }
+
+        SpawnPool pool = current.byWorld().get(world.getUID());
+        if (pool != null) {
+            pool.forget(player.getUniqueId());
+        }
+    }
+
+    /**
+     * @return the pool of a world, or {@code null} if none was built for the current snapshot
+     */
+    private SpawnPool currentPool(World world) {
+        Pools current = pools;
+        return current.source() == config.getSnapshot() ? current.byWorld().get(world.getUID()) : null;
+    }
+
+    /**
+     * Applies a change to the spawn record of a world, bound to the world's
+     * UUID and current name, and publishes it.
+     *
+     * @param change receives the current record, or {@code null} if none exists
+     * @return the new record
+     */
+    private SpawnRecord updateSpawn(World world, UnaryOperator<SpawnRecord> change) {
+        SpawnRecord current = getSpawnRecord(world);
+        SpawnRecord updated = change.apply(current != null ? current.withWorld(world.getUID(), world.getName()) : null);
+
+        config.update(snapshot -> snapshot.withSpawn(updated));
+        rebuildLocations();
+        return updated;
+    }
+
+    /**
+     * Rewrites, in the current format, the legacy entries of loaded worlds and
+     * the records whose world was renamed, then saves the configuration.
+     *
+     * @return the snapshot holding the migrated records
+     */
+    private ConfigSnapshot migrateSpawns(ConfigSnapshot snapshot) {
+        List<SpawnRecord> upgraded = new ArrayList<>();
+
+        for (World world : worlds.get()) {
+            SpawnRecord current = snapshot.spawns().get(world.getUID());
+            if (current != null) {
+                if (!current.worldName().equals(world.getName())) {
+                    upgraded.add(current.withWorld(world.getUID(), world.getName()));
+                }
+                continue;
             }
 
-            return new Location(world, x + 0.5, y, z + 0.5, yaw, pitch);
-        } catch (Exception e) {
-            Bukkit.getLogger().warning(
-                    "Invalid spawn for world '" + worldName + "' in config.yml"
-            );
+            SpawnRecord legacy = snapshot.legacySpawns().get(world.getName());
+            if (legacy != null) {
+                upgraded.add(legacy.withWorld(world.getUID(), world.getName()));
+            }
+        }
 
-            return world.getSpawnLocation();
+        if (upgraded.isEmpty()) {
+            return snapshot;
         }
+
+        ConfigSnapshot migrated = config.update(latest -> latest.withSpawns(upgraded));
+        config.saveConfig();
+
+        logger.info("Migrated " + upgraded.size() + " spawn entries to format version " + SpawnCodec.VERSION);
+        return migrated;
+    }
+
+    /**
+     * Spawn pools together with the snapshot they were built from.
+     *
+     * @param tracksDensity whether any pool uses the density strategy
+     */
+    private record Pools(ConfigSnapshot source, Map<UUID, SpawnPool> byWorld, boolean tracksDensity) {
     }
 }
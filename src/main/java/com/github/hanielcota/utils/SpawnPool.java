@@ -0,0 +1,305 @@
+package com.github.hanielcota.utils;
+
+import com.github.hanielcota.enums.SpawnStrategy;
+import com.github.hanielcota.models.SpawnRecord;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The spawn points of one loaded world, with the state used to spread
+ * teleported players across them.
+ * <p>
+ * Everything a selection reads is precomputed when the pool is built: the
+ * location templates, a Vose alias table for {@link SpawnStrategy#WEIGHTED}
+ * and a linked order for {@link SpawnStrategy#LEAST_RECENTLY_USED}, so those
+ * strategies and round-robin pick a point in constant time.
+ * {@link SpawnStrategy#DENSITY} compares per-point player counts that are kept
+ * up to date from movement events: a player counts for the nearest point
+ * within the density radius, and the count only changes when a player crosses
+ * into or out of a point's area.
+ * <p>
+ * Selections and membership changes may come from several region threads and
+ * are serialized by a lock; moves that do not change membership skip it.
+ */
+final class SpawnPool {
+
+    private final SpawnRecord source;
+    private final Location[] locations;
+    private final double[] weights;
+    private final int radiusSquared;
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private final int[] previous;
+    private final int[] next;
+    private int head;
+    private int tail;
+
+    private int cursor;
+
+    private final int[] counts;
+    private final Map<UUID, Integer> members = new ConcurrentHashMap<>();
+
+    /**
+     * @param world         the loaded world the record belongs to
+     * @param source        the spawn record
+     * @param densityRadius radius, in blocks, within which a player counts for a point
+     */
+    SpawnPool(World world, SpawnRecord source, int densityRadius) {
+        List<SpawnRecord.WeightedPoint> points = source.points();
+        int size = points.size();
+
+        this.source = source;
+        this.locations = new Location[size];
+        this.weights = new double[size];
+        this.radiusSquared = densityRadius * densityRadius;
+        for (int i = 0; i < size; i++) {
+            locations[i] = points.get(i).point().toLocation(world);
+            weights[i] = points.get(i).weight();
+        }
+
+        this.probability = new double[size];
+        this.alias = new int[size];
+        buildAliasTable(weights, probability, alias);
+
+        this.previous = new int[size];
+        this.next = new int[size];
+        for (int i = 0; i < size; i++) {
+            previous[i] = i - 1;
+            next[i] = i + 1 < size ? i + 1 : -1;
+        }
+        this.head = 0;
+        this.tail = size - 1;
+
+        this.counts = new int[size];
+    }
+
+    /**
+     * @return the record this pool was built from
+     */
+    SpawnRecord source() {
+        return source;
+    }
+
+    /**
+     * @return whether the pool was built for the given record and density radius
+     */
+    boolean matches(SpawnRecord record, int densityRadius) {
+        return source.equals(record) && radiusSquared == densityRadius * densityRadius;
+    }
+
+    /**
+     * @return a copy of the primary spawn location
+     */
+    Location primary() {
+        return locations[0].clone();
+    }
+
+    /**
+     * @return copies of every spawn location, primary first
+     */
+    Location[] all() {
+        Location[] copies = new Location[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            copies[i] = locations[i].clone();
+        }
+        return copies;
+    }
+
+    /**
+     * Picks the spawn point for a teleport. With the density strategy the
+     * player is counted at the chosen point right away, so players sent in the
+     * same tick do not all pick the same point.
+     *
+     * @param playerId the teleported player
+     * @return a copy of the chosen location
+     */
+    Location select(UUID playerId) {
+        if (locations.length == 1) {
+            return locations[0].clone();
+        }
+
+        int index;
+        synchronized (this) {
+            index = switch (source.strategy()) {
+                case ROUND_ROBIN -> {
+                    int chosen = cursor;
+                    cursor = chosen + 1 < locations.length ? chosen + 1 : 0;
+                    yield chosen;
+                }
+                case WEIGHTED -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int column = random.nextInt(locations.length);
+                    yield random.nextDouble() < probability[column] ? column : alias[column];
+                }
+                case LEAST_RECENTLY_USED -> {
+                    int chosen = head;
+                    moveToTail(chosen);
+                    yield chosen;
+                }
+                case DENSITY -> {
+                    int chosen = leastCrowded();
+                    assign(playerId, chosen);
+                    yield chosen;
+                }
+            };
+        }
+        return locations[index].clone();
+    }
+
+    /**
+     * @return whether player positions are tracked for this pool
+     */
+    boolean tracksDensity() {
+        return locations.length > 1 && source.strategy() == SpawnStrategy.DENSITY;
+    }
+
+    /**
+     * Updates the point a player counts for after they moved to another block.
+     *
+     * @param playerId the player
+     * @param x        the new block x
+     * @param z        the new block z
+     */
+    void onMove(UUID playerId, int x, int z) {
+        int nearest = nearest(x, z);
+        Integer current = members.get(playerId);
+        if ((current == null ? -1 : current) == nearest) {
+            return;
+        }
+
+        synchronized (this) {
+            assign(playerId, nearest);
+        }
+    }
+
+    /**
+     * Stops counting a player who left the world.
+     *
+     * @param playerId the player
+     */
+    void forget(UUID playerId) {
+        if (members.containsKey(playerId)) {
+            synchronized (this) {
+                assign(playerId, -1);
+            }
+        }
+    }
+
+    private void assign(UUID playerId, int index) {
+        Integer previousIndex = index < 0 ? members.remove(playerId) : members.put(playerId, index);
+        if (previousIndex != null) {
+            counts[previousIndex]--;
+        }
+        if (index >= 0) {
+            counts[index]++;
+        }
+    }
+
+    private int leastCrowded() {
+        int best = 0;
+        double bestLoad = counts[0] / weights[0];
+        for (int i = 1; i < counts.length; i++) {
+            double load = counts[i] / weights[i];
+            if (load < bestLoad) {
+                best = i;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private int nearest(int x, int z) {
+        int best = -1;
+        long bestDistance = radiusSquared;
+        for (int i = 0; i < locations.length; i++) {
+            long dx = x - locations[i].getBlockX();
+            long dz = z - locations[i].getBlockZ();
+            long distance = dx * dx + dz * dz;
+            if (distance <= bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private void moveToTail(int index) {
+        if (index == tail) {
+            return;
+        }
+
+        if (previous[index] >= 0) {
+            next[previous[index]] = next[index];
+        } else {
+            head = next[index];
+        }
+        previous[next[index]] = previous[index];
+
+        previous[index] = tail;
+        next[index] = -1;
+        next[tail] = index;
+        tail = index;
+    }
+
+    /**
+     * Builds the alias table of Vose's method: column {@code i} keeps point
+     * {@code i} with the given probability and otherwise yields its alias.
+     */
+    private static void buildAliasTable(double[] weights, double[] probability, int[] alias) {
+        int size = weights.length;
+        double total = 0.0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Leftovers are 1.0 up to rounding error.
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+    }
+}
@@ -0,0 +1,552 @@
+package com.github.hanielcota.utils;
+
+import com.github.hanielcota.enums.TeleportResult;
+import org.bukkit.Location;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Audit journal of every teleport: who, from where, to which world, the
+ * {@link TeleportResult} and the latency.
+ * <p>
+ * {@link #record} writes one fixed-size entry into a preallocated ring buffer
+ * and returns; it never blocks and never allocates once a world name has been
+ * encoded. Producers claim slots with a CAS and publish them with an ordered
+ * write, so any region thread may record. When the buffer is full the entry is
+ * dropped and counted instead.
+ * <p>
+ * A dedicated I/O thread drains the buffer in batches and appends them through
+ * a {@link FileChannel} to segment files under {@code journal/}. A segment is
+ * closed once it reaches {@code journal.segment-size-kb} and the oldest ones
+ * are deleted beyond {@code journal.max-segments}. Each segment starts with a
+ * header of one entry size ({@code [int magic][int version][int entry size]}),
+ * followed by entries laid out as:
+ * <pre>
+ * [long epoch millis][long player msb][long player lsb]
+ * [double x][double y][double z][int result][int latency micros]
+ * [byte length + 31 bytes from world UTF-8][byte length + 31 bytes target world UTF-8]
+ * [8 bytes reserved]
+ * </pre>
+ * The result is stored as a fixed code from {@link #RESULT_CODES}, not as the
+ * enum ordinal, so reordering {@link TeleportResult} does not change the
+ * meaning of existing segments. The writer runs for the whole session and
+ * opens a segment once the journal is enabled, so enabling it with a reload
+ * takes effect without a restart.
+ * <p>
+ * {@link #query} memory-maps the segments on the I/O thread and scans them from
+ * the newest entry backwards.
+ */
+public class TeleportJournal {
+
+    private static final String CONFIG_PATH = "journal";
+    private static final String FOLDER_NAME = "journal";
+    private static final String SEGMENT_PREFIX = "teleports-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int MAGIC = 0x574C4A4E;
+    private static final int VERSION = 1;
+
+    /** Size of one entry, and of the segment header. */
+    static final int ENTRY_SIZE = 128;
+    private static final int NAME_SIZE = 32;
+    private static final int MAX_NAME_BYTES = NAME_SIZE - 1;
+
+    private static final int TIME = 0;
+    private static final int PLAYER_MSB = 8;
+    private static final int PLAYER_LSB = 16;
+    private static final int X = 24;
+    private static final int Y = 32;
+    private static final int Z = 40;
+    private static final int RESULT = 48;
+    private static final int LATENCY = 52;
+    private static final int FROM_WORLD = 56;
+    private static final int TO_WORLD = FROM_WORLD + NAME_SIZE;
+
+    /**
+     * Result of each persisted code, by code. Codes are part of the file format:
+     * append new results, never reorder or remove them.
+     */
+    private static final TeleportResult[] RESULT_CODES = {
+            TeleportResult.SUCCESS,
+            TeleportResult.WORLD_NOT_FOUND,
+            TeleportResult.LOCATION_NOT_SAFE,
+            TeleportResult.GENERIC_FAILURE,
+            TeleportResult.TRANSFERRED,
+            TeleportResult.ON_COOLDOWN,
+            TeleportResult.RATE_LIMITED,
+            TeleportResult.CANCELLED,
+            TeleportResult.RANDOM_UNAVAILABLE,
+            TeleportResult.NO_RANDOM_LOCATION
+    };
+    private static final Map<TeleportResult, Integer> CODES = new EnumMap<>(TeleportResult.class);
+
+    static {
+        for (int code = 0; code < RESULT_CODES.length; code++) {
+            CODES.put(RESULT_CODES[code], code);
+        }
+        if (CODES.size() != TeleportResult.values().length) {
+            throw new IllegalStateException("Every TeleportResult needs a journal code");
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final ConfigUtils config;
+    private final Path folder;
+    private final ScheduledExecutorService ioExecutor;
+    private final Ring ring;
+    private final Map<String, byte[]> encodedNames = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    // Only accessed from the I/O thread.
+    private final ByteBuffer batch;
+    private FileChannel channel;
+    private long nextSegment;
+    private boolean openFailed;
+    private boolean started;
+
+    public TeleportJournal(JavaPlugin plugin, ConfigUtils config) {
+        this.plugin = plugin;
+        this.config = config;
+        this.folder = plugin.getDataFolder().toPath().resolve(FOLDER_NAME);
+        this.ring = new Ring(Math.max(64, config.getInt(CONFIG_PATH + ".buffer-size", 8192)));
+        this.batch = ByteBuffer.allocateDirect(Math.min(ring.capacity(), 512) * ENTRY_SIZE);
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return whether the journal is enabled in the configuration
+     */
+    public boolean isEnabled() {
+        return config.getBoolean(CONFIG_PATH + ".enabled");
+    }
+
+    /**
+     * Schedules the batch writes on the I/O thread. A segment is opened by the
+     * first write after the journal is enabled, at startup or by a reload.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        long interval = Math.max(10, config.getInt(CONFIG_PATH + ".flush-interval-millis", 200));
+        ioExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes every buffered entry and closes the current segment.
+     */
+    public void shutdown() {
+        try {
+            ioExecutor.submit(() -> {
+                flush();
+                closeChannel();
+            }).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not flush the teleport journal", e);
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Records one teleport. Never blocks; the entry is dropped if the buffer is full.
+     *
+     * @param playerId     the teleported player
+     * @param from         where the player was when the teleport started, may be {@code null}
+     * @param targetWorld  the name of the target world
+     * @param result       the outcome
+     * @param latencyNanos time from the request to the outcome
+     */
+    public void record(UUID playerId, Location from, String targetWorld, TeleportResult result, long latencyNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+
+        ByteBuffer slots = ring.slots;
+        int offset = ring.offset(sequence);
+        slots.putLong(offset + TIME, System.currentTimeMillis());
+        slots.putLong(offset + PLAYER_MSB, playerId.getMostSignificantBits());
+        slots.putLong(offset + PLAYER_LSB, playerId.getLeastSignificantBits());
+        slots.putDouble(offset + X, from != null ? from.getX() : Double.NaN);
+        slots.putDouble(offset + Y, from != null ? from.getY() : Double.NaN);
+        slots.putDouble(offset + Z, from != null ? from.getZ() : Double.NaN);
+        slots.putInt(offset + RESULT, CODES.get(result));
+        slots.putInt(offset + LATENCY, (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        putName(slots, offset + FROM_WORLD, from != null && from.getWorld() != null ? from.getWorld().getName() : "");
+        putName(slots, offset + TO_WORLD, targetWorld);
+        ring.publish(sequence);
+    }
+
+    /**
+     * @return the number of entries dropped because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of entries written to disk since the server started
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Finds the newest entries of a player.
+     *
+     * @param playerId the player
+     * @param limit    the maximum number of entries
+     * @return a future completing with matching entries, newest first
+     */
+    public CompletableFuture<List<Entry>> queryPlayer(UUID playerId, int limit) {
+        return query(entry -> entry.playerId().equals(playerId), limit);
+    }
+
+    /**
+     * Finds the newest entries that left or targeted a world.
+     *
+     * @param worldName the world name
+     * @param limit     the maximum number of entries
+     * @return a future completing with matching entries, newest first
+     */
+    public CompletableFuture<List<Entry>> queryWorld(String worldName, int limit) {
+        return query(entry -> worldName.equals(entry.targetWorld()) || worldName.equals(entry.fromWorld()), limit);
+    }
+
+    /**
+     * Flushes the buffer and scans the segments, newest first, on the I/O thread.
+     *
+     * @param filter selects the entries to return
+     * @param limit  the maximum number of entries
+     * @return a future completing with matching entries, newest first
+     */
+    public CompletableFuture<List<Entry>> query(Predicate<Entry> filter, int limit) {
+        if (!isEnabled()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        CompletableFuture<List<Entry>> future = new CompletableFuture<>();
+        try {
+            ioExecutor.execute(() -> {
+                try {
+                    flush();
+                    future.complete(scan(filter, limit));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private List<Entry> scan(Predicate<Entry> filter, int limit) throws IOException {
+        List<Entry> matches = new ArrayList<>();
+        List<Path> segments = listSegments();
+        for (int i = segments.size() - 1; i >= 0 && matches.size() < limit; i--) {
+            try (FileChannel segment = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                long size = segment.size();
+                if (size < ENTRY_SIZE) {
+                    continue;
+                }
+
+                MappedByteBuffer mapped = segment.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (mapped.getInt(0) != MAGIC || mapped.getInt(4) > VERSION || mapped.getInt(8) != ENTRY_SIZE) {
+                    plugin.getLogger().warning("Skipping unreadable journal segment " + segments.get(i).getFileName());
+                    continue;
+                }
+
+                // A torn entry at the end of a segment is ignored.
+                long entries = size / ENTRY_SIZE - 1;
+                for (long n = entries; n >= 1 && matches.size() < limit; n--) {
+                    Entry entry = readEntry(mapped, (int) (n * ENTRY_SIZE));
+                    if (entry != null && filter.test(entry)) {
+                        matches.add(entry);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(folder);
+            List<Path> segments = listSegments();
+            if (!segments.isEmpty()) {
+                nextSegment = segmentIndex(segments.get(segments.size() - 1)) + 1;
+            }
+            openSegment();
+        } catch (IOException e) {
+            // Logged once; later flushes keep trying quietly.
+            if (!openFailed) {
+                plugin.getLogger().log(Level.SEVERE, "Could not open the teleport journal", e);
+            }
+            openFailed = true;
+        }
+    }
+
+    private void flush() {
+        if (channel == null) {
+            if (!isEnabled()) {
+                return;
+            }
+            open();
+            if (channel == null) {
+                return;
+            }
+            openFailed = false;
+        }
+
+        try {
+            long segmentBytes = Math.max(16, config.getInt(CONFIG_PATH + ".segment-size-kb", 4096)) * 1024L;
+            while (true) {
+                batch.clear();
+                if (ring.drainTo(batch) == 0) {
+                    return;
+                }
+                batch.flip();
+
+                if (channel.size() + batch.remaining() > segmentBytes) {
+                    closeChannel();
+                    openSegment();
+                }
+
+                int entries = batch.remaining() / ENTRY_SIZE;
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                written.add(entries);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write the teleport journal", e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = folder.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(ENTRY_SIZE).clear();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        pruneSegments();
+    }
+
+    private void pruneSegments() throws IOException {
+        int maxSegments = Math.max(2, config.getInt(CONFIG_PATH + ".max-segments", 16));
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close the teleport journal", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * @return the segment files, oldest first
+     */
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(folder)) {
+            return segments;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                if (segmentIndex(file) >= 0) {
+                    segments.add(file);
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(segmentIndex(a), segmentIndex(b)));
+        return segments;
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void putName(ByteBuffer slots, int offset, String name) {
+        byte[] encoded = encodedNames.get(name);
+        if (encoded == null) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            encoded = bytes.length > MAX_NAME_BYTES ? Arrays.copyOf(bytes, MAX_NAME_BYTES) : bytes;
+            encodedNames.putIfAbsent(name, encoded);
+        }
+
+        slots.put(offset, (byte) encoded.length);
+        slots.put(offset + 1, encoded, 0, encoded.length);
+    }
+
+    private static Entry readEntry(ByteBuffer buffer, int offset) {
+        int result = buffer.getInt(offset + RESULT);
+        if (result < 0 || result >= RESULT_CODES.length) {
+            return null;
+        }
+
+        return new Entry(
+                buffer.getLong(offset + TIME),
+                new UUID(buffer.getLong(offset + PLAYER_MSB), buffer.getLong(offset + PLAYER_LSB)),
+                readName(buffer, offset + FROM_WORLD),
+                buffer.getDouble(offset + X),
+                buffer.getDouble(offset + Y),
+                buffer.getDouble(offset + Z),
+                readName(buffer, offset + TO_WORLD),
+                RESULT_CODES[result],
+                buffer.getInt(offset + LATENCY)
+        );
+    }
+
+    private static String readName(ByteBuffer buffer, int offset) {
+        int length = Math.min(buffer.get(offset) & 0xFF, MAX_NAME_BYTES);
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One journal entry.
+     *
+     * @param epochMillis   when the teleport finished
+     * @param playerId      the teleported player
+     * @param fromWorld     the world the player left, empty if unknown
+     * @param x             the x the player left from, NaN if unknown
+     * @param y             the y the player left from, NaN if unknown
+     * @param z             the z the player left from, NaN if unknown
+     * @param targetWorld   the requested world
+     * @param result        the outcome
+     * @param latencyMicros time from the request to the outcome
+     */
+    public record Entry(long epochMillis, UUID playerId, String fromWorld, double x, double y, double z,
+                        String targetWorld, TeleportResult result, int latencyMicros) {
+    }
+
+    /**
+     * Multi-producer, single-consumer ring of fixed-size entries.
+     * <p>
+     * A producer claims sequence {@code s} by advancing {@code head} while fewer
+     * than {@code capacity} entries are unconsumed, fills slot {@code s & mask}
+     * and then stores {@code s + 1} in that slot's flag. The consumer copies
+     * slots in sequence order while their flag matches, and advances
+     * {@code tail} afterwards, which hands the slots back to producers.
+     */
+    private static final class Ring {
+        private final int mask;
+        private final ByteBuffer slots;
+        private final AtomicLongArray published;
+        private final AtomicLong head = new AtomicLong();
+        private volatile long tail;
+
+        private Ring(int requested) {
+            int capacity = Integer.highestOneBit(requested - 1) << 1;
+            this.mask = capacity - 1;
+            this.slots = ByteBuffer.allocate(capacity * ENTRY_SIZE);
+            this.published = new AtomicLongArray(capacity);
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * @return the claimed sequence, or -1 if the ring is full
+         */
+        long claim() {
+            long sequence;
+            do {
+                sequence = head.get();
+                if (sequence - tail > mask) {
+                    return -1;
+                }
+            } while (!head.compareAndSet(sequence, sequence + 1));
+            return sequence;
+        }
+
+        int offset(long sequence) {
+            return (int) (sequence & mask) * ENTRY_SIZE;
+        }
+
+        void publish(long sequence) {
+            published.lazySet((int) (sequence & mask), sequence + 1);
+        }
+
+        /**
+         * Copies published entries, in order, until the target is full or a
+         * slot is not published yet. Only called from the I/O thread.
+         *
+         * @return the number of entries copied
+         */
+        int drainTo(ByteBuffer target) {
+            long next = tail;
+            int copied = 0;
+            while (target.remaining() >= ENTRY_SIZE && published.get((int) (next & mask)) == next + 1) {
+                target.put(target.position(), slots, offset(next), ENTRY_SIZE);
+                target.position(target.position() + ENTRY_SIZE);
+                next++;
+                copied++;
+            }
+            tail = next;
+            return copied;
+        }
+    }
+}